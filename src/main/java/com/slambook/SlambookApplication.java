@@ -3,9 +3,11 @@ package com.slambook;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableReactiveMongoRepositories
+@EnableScheduling
 public class SlambookApplication {
 
     public static void main(String[] args) {
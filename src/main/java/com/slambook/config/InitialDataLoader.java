@@ -2,6 +2,7 @@ package com.slambook.config;
 
 import com.slambook.model.Template;
 import com.slambook.model.User;
+import com.slambook.repository.SlamBookEntryRepository;
 import com.slambook.repository.TemplateRepository;
 import com.slambook.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,12 +24,14 @@ public class InitialDataLoader implements ApplicationRunner {
 
     private final UserRepository userRepository;
     private final TemplateRepository templateRepository;
+    private final SlamBookEntryRepository slamBookEntryRepository;
     private final PasswordEncoder passwordEncoder;
 
     @Override
     public void run(ApplicationArguments args) {
         createSuperAdminIfNotExists()
                 .then(createDefaultSystemTemplate())
+                .then(backfillReactionCounts())
                 .subscribe();
     }
 
@@ -196,4 +199,13 @@ public class InitialDataLoader implements ApplicationRunner {
         return templateRepository.save(template)
                 .doOnSuccess(t -> log.info("✅ Default system template created: {}", t.getName()));
     }
-}
\ No newline at end of file
+
+    private Mono<Long> backfillReactionCounts() {
+        return slamBookEntryRepository.backfillReactionCounts()
+                .doOnSuccess(updated -> {
+                    if (updated > 0) {
+                        log.info("✅ Backfilled reaction counts on {} entries", updated);
+                    }
+                });
+    }
+}
@@ -5,6 +5,7 @@ import com.slambook.security.SecurityContextRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
@@ -38,6 +39,15 @@ public class SecurityConfig {
             "/webjars/swagger-ui/**"
     };
 
+    // Uploaded files (MediaController): <img>, <video> and <audio> can't send a bearer token,
+    // so the unguessable, never-reused file names are the access control
+    private static final String[] MEDIA_PATHS = {
+            "/blobs/**",
+            "/profiles/**",
+            "/slambook/**",
+            "/colleges/**"
+    };
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
         return http
@@ -59,6 +69,10 @@ public class SecurityConfig {
                                 "/api/v1/auth/reset-password")
                         .permitAll()
 
+                        // Uploaded media, read-only
+                        .pathMatchers(HttpMethod.GET, MEDIA_PATHS).permitAll()
+                        .pathMatchers(HttpMethod.HEAD, MEDIA_PATHS).permitAll()
+
                         // Swagger endpoints
                         .pathMatchers(SWAGGER_WHITELIST).permitAll()
 
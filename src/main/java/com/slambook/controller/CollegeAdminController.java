@@ -1,16 +1,20 @@
 package com.slambook.controller;
 
+import com.slambook.dto.request.AnnouncementRequest;
 import com.slambook.dto.request.CollegeSettingsRequest;
 import com.slambook.dto.request.JoinRequestActionRequest;
 import com.slambook.dto.response.ApiResponse;
 import com.slambook.dto.response.CollegeResponse;
+import com.slambook.dto.response.NotificationResponse;
 import com.slambook.dto.response.UserResponse;
 import com.slambook.security.CustomUserDetails;
+import com.slambook.service.AnnouncementService;
 import com.slambook.service.CollegeService;
 import com.slambook.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -28,6 +32,7 @@ public class CollegeAdminController {
 
     private final UserService userService;
     private final CollegeService collegeService;
+    private final AnnouncementService announcementService;
 
     @GetMapping("/join-requests")
     public Mono<ResponseEntity<ApiResponse<List<UserResponse>>>> getPendingJoinRequests(
@@ -82,4 +87,23 @@ public class CollegeAdminController {
         return collegeService.getCollegeById(userDetails.getCollegeId())
                 .map(college -> ResponseEntity.ok(ApiResponse.success(college)));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/announcements")
+    public Mono<ResponseEntity<ApiResponse<NotificationResponse>>> createAnnouncement(
+            @Valid @RequestBody AnnouncementRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Create announcement for college: {} by admin: {}", userDetails.getCollegeId(), userDetails.getUserId());
+        return announcementService.createAnnouncement(request, userDetails)
+                .map(announcement -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.success("Announcement published", announcement)));
+    }
+
+    @DeleteMapping("/announcements/{id}")
+    public Mono<ResponseEntity<ApiResponse<Void>>> deleteAnnouncement(
+            @PathVariable String id,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Delete announcement: {} by admin: {}", id, userDetails.getUserId());
+        return announcementService.deleteAnnouncement(id, userDetails)
+                .then(Mono.just(ResponseEntity.ok(ApiResponse.<Void>success("Announcement deleted", null))));
+    }
+}
@@ -34,9 +34,12 @@ public class FileUploadController {
         log.info("Upload profile picture for user: {}", userDetails.getUserId());
 
         return fileStorageService.uploadProfilePicture(file, userDetails.getUserId())
-                .map(url -> {
+                .map(stored -> {
                     Map<String, String> response = new HashMap<>();
-                    response.put("url", url);
+                    response.put("url", stored.getUrl());
+                    if (stored.getThumbnailUrl() != null) {
+                        response.put("thumbnailUrl", stored.getThumbnailUrl());
+                    }
                     response.put("type", "profile_picture");
                     return ResponseEntity
                             .status(HttpStatus.CREATED)
@@ -53,10 +56,13 @@ public class FileUploadController {
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Upload slam book image for user: {}", userDetails.getUserId());
 
-        return fileStorageService.uploadSlamBookAttachment(file, userDetails.getUserId(), "IMAGE")
-                .map(url -> {
+        return fileStorageService.uploadStandaloneAttachment(file, userDetails.getUserId(), "IMAGE")
+                .map(stored -> {
                     Map<String, String> response = new HashMap<>();
-                    response.put("url", url);
+                    response.put("url", stored.getUrl());
+                    if (stored.getThumbnailUrl() != null) {
+                        response.put("thumbnailUrl", stored.getThumbnailUrl());
+                    }
                     response.put("type", "image");
                     return ResponseEntity
                             .status(HttpStatus.CREATED)
@@ -73,10 +79,13 @@ public class FileUploadController {
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Upload slam book video for user: {}", userDetails.getUserId());
 
-        return fileStorageService.uploadSlamBookAttachment(file, userDetails.getUserId(), "VIDEO")
-                .map(url -> {
+        return fileStorageService.uploadStandaloneAttachment(file, userDetails.getUserId(), "VIDEO")
+                .map(stored -> {
                     Map<String, String> response = new HashMap<>();
-                    response.put("url", url);
+                    response.put("url", stored.getUrl());
+                    if (stored.getThumbnailUrl() != null) {
+                        response.put("thumbnailUrl", stored.getThumbnailUrl());
+                    }
                     response.put("type", "video");
                     return ResponseEntity
                             .status(HttpStatus.CREATED)
@@ -93,10 +102,13 @@ public class FileUploadController {
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Upload slam book audio for user: {}", userDetails.getUserId());
 
-        return fileStorageService.uploadSlamBookAttachment(file, userDetails.getUserId(), "AUDIO")
-                .map(url -> {
+        return fileStorageService.uploadStandaloneAttachment(file, userDetails.getUserId(), "AUDIO")
+                .map(stored -> {
                     Map<String, String> response = new HashMap<>();
-                    response.put("url", url);
+                    response.put("url", stored.getUrl());
+                    if (stored.getThumbnailUrl() != null) {
+                        response.put("thumbnailUrl", stored.getThumbnailUrl());
+                    }
                     response.put("type", "audio");
                     return ResponseEntity
                             .status(HttpStatus.CREATED)
@@ -115,9 +127,12 @@ public class FileUploadController {
         log.info("Upload college logo for college: {}", userDetails.getCollegeId());
 
         return fileStorageService.uploadCollegeLogo(file, userDetails.getCollegeId())
-                .map(url -> {
+                .map(stored -> {
                     Map<String, String> response = new HashMap<>();
-                    response.put("url", url);
+                    response.put("url", stored.getUrl());
+                    if (stored.getThumbnailUrl() != null) {
+                        response.put("thumbnailUrl", stored.getThumbnailUrl());
+                    }
                     response.put("type", "college_logo");
                     return ResponseEntity
                             .status(HttpStatus.CREATED)
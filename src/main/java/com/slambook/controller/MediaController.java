@@ -0,0 +1,167 @@
+package com.slambook.controller;
+
+import com.slambook.exception.NotFoundException;
+import com.slambook.service.FileStorageService;
+import com.slambook.service.MediaFile;
+import com.slambook.service.ThumbnailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves uploaded files at the URLs {@link FileStorageService} hands out. Whole files and single ranges
+ * in local storage go out with sendfile via {@link ZeroCopyHttpOutputMessage}; everything else streams
+ * through pooled buffers. Upload names are never reused, so responses are cacheable indefinitely.
+ * {@code ?size=} selects an image's thumbnail.
+ * <p>
+ * These routes are public (see SecurityConfig): media elements and their range requests can't carry an
+ * {@code Authorization} header, so knowing a file's URL is what grants access to it. URLs are only handed
+ * out to users who may see the file, are never reused, and carry a random UUID or, for shared blobs, the
+ * SHA-256 of the content, so they can't be guessed.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class MediaController {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    private static final int MAX_RANGES = 16;
+
+    private final FileStorageService fileStorageService;
+
+    @GetMapping({"/blobs/**", "/profiles/**", "/slambook/**", "/colleges/**"})
+    public Mono<Void> serveMedia(
+            @RequestParam(name = ThumbnailService.SIZE_PARAM, required = false) Integer size,
+            ServerWebExchange exchange) {
+        String fileUrl = exchange.getRequest().getPath().pathWithinApplication().value();
+        return fileStorageService.findMedia(fileUrl, size)
+                .switchIfEmpty(Mono.error(new NotFoundException("File not found")))
+                .flatMap(media -> write(exchange, media));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, MediaFile media) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        // A stand-in for a pending thumbnail must not be cached under the thumbnail's URL
+        headers.setCacheControl(media.isSubstitute() ? CacheControl.noCache() : IMMUTABLE);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Sets 304 and the validators when the client's copy is current
+        if (exchange.checkNotModified(media.getEtag(), media.getLastModified())) {
+            return response.setComplete();
+        }
+        headers.setETag(media.getEtag());
+        headers.setLastModified(media.getLastModified());
+
+        List<HttpRange> ranges;
+        try {
+            ranges = requestedRanges(exchange, media);
+        } catch (IllegalArgumentException e) {
+            response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + media.getSize());
+            return response.setComplete();
+        }
+
+        boolean head = exchange.getRequest().getMethod() == HttpMethod.HEAD;
+        long size = media.getSize();
+
+        if (ranges.isEmpty()) {
+            headers.setContentType(media.getContentType());
+            headers.setContentLength(size);
+            return head ? response.setComplete() : zeroCopy(response, media, 0, size);
+        }
+
+        response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(size);
+            long end = ranges.get(0).getRangeEnd(size);
+            headers.setContentType(media.getContentType());
+            headers.setContentLength(end - start + 1);
+            headers.set(HttpHeaders.CONTENT_RANGE, contentRange(start, end, size));
+            return head ? response.setComplete() : zeroCopy(response, media, start, end - start + 1);
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        headers.setContentType(new MediaType("multipart", "byteranges", Map.of("boundary", boundary)));
+        if (head) {
+            return response.setComplete();
+        }
+
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        List<Flux<DataBuffer>> parts = new ArrayList<>();
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            String partHeaders = "\r\n--" + boundary + "\r\n" +
+                    HttpHeaders.CONTENT_TYPE + ": " + media.getContentType() + "\r\n" +
+                    HttpHeaders.CONTENT_RANGE + ": " + contentRange(start, end, size) + "\r\n\r\n";
+            parts.add(Flux.concat(
+                    Mono.fromSupplier(() -> text(bufferFactory, partHeaders)),
+                    fileStorageService.readMedia(media, start, end - start + 1, bufferFactory)));
+        }
+        parts.add(Flux.defer(() -> Mono.just(text(bufferFactory, "\r\n--" + boundary + "--\r\n"))));
+        return response.writeWith(Flux.concat(parts));
+    }
+
+    /**
+     * Ranges to serve, or none for the whole file. A stale {@code If-Range} validator also means the
+     * whole file. Throws {@link IllegalArgumentException} for unsatisfiable or excessive ranges.
+     */
+    private List<HttpRange> requestedRanges(ServerWebExchange exchange, MediaFile media) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(media.getEtag())) {
+            return List.of();
+        }
+
+        List<HttpRange> ranges = requestHeaders.getRange();
+        if (ranges.size() > MAX_RANGES) {
+            throw new IllegalArgumentException("Too many ranges: " + ranges.size());
+        }
+        for (HttpRange range : ranges) {
+            if (range.getRangeStart(media.getSize()) >= media.getSize()) {
+                throw new IllegalArgumentException("Range starts past the end of the file");
+            }
+        }
+        return ranges;
+    }
+
+    private Mono<Void> zeroCopy(ServerHttpResponse response, MediaFile media, long position, long count) {
+        if (media.getLocalPath() != null && response instanceof ZeroCopyHttpOutputMessage zeroCopyResponse) {
+            return zeroCopyResponse.writeWith(media.getLocalPath(), position, count);
+        }
+        return response.writeWith(fileStorageService.readMedia(media, position, count, response.bufferFactory()));
+    }
+
+    private static String contentRange(long start, long end, long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    private static DataBuffer text(DataBufferFactory bufferFactory, String value) {
+        return bufferFactory.wrap(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
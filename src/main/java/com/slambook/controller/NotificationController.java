@@ -2,17 +2,20 @@ package com.slambook.controller;
 
 import com.slambook.dto.response.ApiResponse;
 import com.slambook.dto.response.NotificationResponse;
+import com.slambook.dto.response.PageResponse;
+import com.slambook.model.Notification;
 import com.slambook.security.CustomUserDetails;
 import com.slambook.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/notifications")
@@ -22,21 +25,35 @@ public class NotificationController {
     private final NotificationService notificationService;
 
     @GetMapping
-    public Mono<ResponseEntity<ApiResponse<List<NotificationResponse>>>> getNotifications(
+    public Mono<ResponseEntity<ApiResponse<PageResponse<NotificationResponse>>>> getNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Get notifications for user: {}", userDetails.getUserId());
-        return notificationService.getUserNotifications(userDetails)
-                .collectList()
-                .map(notifications -> ResponseEntity.ok(ApiResponse.success(notifications)));
+        return notificationService.getUserNotifications(userDetails, cursor, size)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page)));
     }
 
     @GetMapping("/unread")
-    public Mono<ResponseEntity<ApiResponse<List<NotificationResponse>>>> getUnreadNotifications(
+    public Mono<ResponseEntity<ApiResponse<PageResponse<NotificationResponse>>>> getUnreadNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Get unread notifications for user: {}", userDetails.getUserId());
-        return notificationService.getUnreadNotifications(userDetails)
-                .collectList()
-                .map(notifications -> ResponseEntity.ok(ApiResponse.success(notifications)));
+        return notificationService.getUnreadNotifications(userDetails, cursor, size)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page)));
+    }
+
+    /**
+     * Server-Sent Events stream of new notifications. Emits {@code unread-count} on connect,
+     * {@code notification} for each new notification, heartbeat comments, and {@code resync}
+     * when events were dropped and the client should refetch.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamNotifications(
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Open notification stream for user: {}", userDetails.getUserId());
+        return notificationService.streamNotifications(userDetails);
     }
 
     @GetMapping("/unread-count")
@@ -55,12 +72,18 @@ public class NotificationController {
                 .map(notification -> ResponseEntity.ok(ApiResponse.success("Marked as read", notification)));
     }
 
+    /**
+     * Mark notifications as read in bulk: all of them, those up to and including notification {@code upTo},
+     * and/or those of one {@code type}. Returns the number of notifications marked.
+     */
     @PutMapping("/read-all")
-    public Mono<ResponseEntity<ApiResponse<Void>>> markAllAsRead(
+    public Mono<ResponseEntity<ApiResponse<Long>>> markAllAsRead(
+            @RequestParam(required = false) String upTo,
+            @RequestParam(required = false) Notification.NotificationType type,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Mark all notifications as read for user: {}", userDetails.getUserId());
-        return notificationService.markAllAsRead(userDetails)
-                .then(Mono.just(ResponseEntity.ok(ApiResponse.<Void>success("All notifications marked as read", null))));
+        return notificationService.markAllAsRead(userDetails, upTo, type)
+                .map(marked -> ResponseEntity.ok(ApiResponse.success("Notifications marked as read", marked)));
     }
 
     @DeleteMapping("/{id}")
@@ -3,22 +3,31 @@ package com.slambook.controller;
 import com.slambook.dto.request.ReactionRequest;
 import com.slambook.dto.request.ReportRequest;
 import com.slambook.dto.request.SlamBookEntryCreateRequest;
+import com.slambook.dto.request.SlamBookEntryFilterRequest;
 import com.slambook.dto.request.SlamBookEntryUpdateRequest;
+import com.slambook.dto.request.UploadSessionCreateRequest;
 import com.slambook.dto.response.ApiResponse;
+import com.slambook.dto.response.PageResponse;
+import com.slambook.dto.response.ReactionResponse;
 import com.slambook.dto.response.SlamBookEntryResponse;
+import com.slambook.dto.response.UploadSessionResponse;
 import com.slambook.model.SlamBookEntry;
 import com.slambook.security.CustomUserDetails;
 import com.slambook.service.FileStorageService;
+import com.slambook.service.ResumableUploadService;
 import com.slambook.service.SlamBookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -31,6 +40,7 @@ public class SlamBookController {
 
     private final SlamBookService slamBookService;
     private final FileStorageService fileStorageService;
+    private final ResumableUploadService resumableUploadService;
 
     @PostMapping("/entries")
     public Mono<ResponseEntity<ApiResponse<SlamBookEntryResponse>>> createEntry(
@@ -54,22 +64,12 @@ public class SlamBookController {
         log.info("Upload image to entry: {} by user: {}", entryId, userDetails.getUserId());
 
         return fileStorageService.uploadSlamBookAttachment(file, userDetails.getUserId(), "IMAGE")
-                .flatMap(url -> {
-                    // Get file metadata
-                    String filename = file.filename();
-                    // Note: FilePart doesn't provide size directly in reactive way
-                    // We'll set it as 0 for now, or you can calculate during upload
-                    Long fileSize = 0L;
-
-                    return slamBookService.addAttachment(
-                            entryId,
-                            userDetails,
-                            url,
-                            SlamBookEntry.AttachmentType.IMAGE,
-                            filename,
-                            fileSize
-                    );
-                })
+                .flatMap(stored -> slamBookService.addAttachment(
+                        entryId,
+                        userDetails,
+                        stored,
+                        SlamBookEntry.AttachmentType.IMAGE
+                ))
                 .map(entry -> ResponseEntity.ok(
                         ApiResponse.success("Image uploaded successfully", entry)
                 ));
@@ -86,13 +86,11 @@ public class SlamBookController {
         log.info("Upload video to entry: {} by user: {}", entryId, userDetails.getUserId());
 
         return fileStorageService.uploadSlamBookAttachment(file, userDetails.getUserId(), "VIDEO")
-                .flatMap(url -> slamBookService.addAttachment(
+                .flatMap(stored -> slamBookService.addAttachment(
                         entryId,
                         userDetails,
-                        url,
-                        SlamBookEntry.AttachmentType.VIDEO,
-                        file.filename(),
-                        0L
+                        stored,
+                        SlamBookEntry.AttachmentType.VIDEO
                 ))
                 .map(entry -> ResponseEntity.ok(
                         ApiResponse.success("Video uploaded successfully", entry)
@@ -110,19 +108,80 @@ public class SlamBookController {
         log.info("Upload audio to entry: {} by user: {}", entryId, userDetails.getUserId());
 
         return fileStorageService.uploadSlamBookAttachment(file, userDetails.getUserId(), "AUDIO")
-                .flatMap(url -> slamBookService.addAttachment(
+                .flatMap(stored -> slamBookService.addAttachment(
                         entryId,
                         userDetails,
-                        url,
-                        SlamBookEntry.AttachmentType.AUDIO,
-                        file.filename(),
-                        0L
+                        stored,
+                        SlamBookEntry.AttachmentType.AUDIO
                 ))
                 .map(entry -> ResponseEntity.ok(
                         ApiResponse.success("Audio uploaded successfully", entry)
                 ));
     }
 
+    /**
+     * Start a resumable upload of a video or audio attachment
+     */
+    @PostMapping("/entries/{entryId}/attachments/uploads")
+    public Mono<ResponseEntity<ApiResponse<UploadSessionResponse>>> createUploadSession(
+            @PathVariable String entryId,
+            @Valid @RequestBody UploadSessionCreateRequest request,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Create upload session for entry: {} by user: {}", entryId, userDetails.getUserId());
+
+        return resumableUploadService.createSession(entryId, userDetails, request)
+                .map(session -> ResponseEntity
+                        .status(HttpStatus.CREATED)
+                        .body(ApiResponse.success("Upload session created", session)));
+    }
+
+    /**
+     * Current offset of a resumable upload, to resume from after a failed chunk
+     */
+    @GetMapping("/uploads/{sessionId}")
+    public Mono<ResponseEntity<ApiResponse<UploadSessionResponse>>> getUploadSession(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return resumableUploadService.getSession(sessionId, userDetails)
+                .map(session -> ResponseEntity.ok(ApiResponse.success("Upload session retrieved", session)));
+    }
+
+    /**
+     * Upload the next chunk of a resumable upload as the raw request body
+     */
+    @PutMapping(value = "/uploads/{sessionId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Mono<ResponseEntity<ApiResponse<UploadSessionResponse>>> uploadChunk(
+            @PathVariable String sessionId,
+            @RequestParam long offset,
+            @RequestBody Flux<DataBuffer> content,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        return resumableUploadService.writeChunk(sessionId, offset, content, userDetails)
+                .map(session -> ResponseEntity.ok(ApiResponse.success("Chunk uploaded", session)));
+    }
+
+    /**
+     * Attach a fully uploaded file to its entry
+     */
+    @PostMapping("/uploads/{sessionId}/complete")
+    public Mono<ResponseEntity<ApiResponse<SlamBookEntryResponse>>> completeUpload(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Complete upload session: {} by user: {}", sessionId, userDetails.getUserId());
+
+        return resumableUploadService.complete(sessionId, userDetails)
+                .map(entry -> ResponseEntity.ok(ApiResponse.success("Attachment uploaded successfully", entry)));
+    }
+
+    @DeleteMapping("/uploads/{sessionId}")
+    public Mono<ResponseEntity<ApiResponse<Void>>> cancelUpload(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Cancel upload session: {} by user: {}", sessionId, userDetails.getUserId());
+
+        return resumableUploadService.cancel(sessionId, userDetails)
+                .then(Mono.just(ResponseEntity.ok(ApiResponse.<Void>success("Upload cancelled", null))));
+    }
+
     /**
      * Remove attachment from entry
      */
@@ -140,21 +199,25 @@ public class SlamBookController {
     }
 
     @GetMapping("/entries/for-me")
-    public Mono<ResponseEntity<ApiResponse<List<SlamBookEntryResponse>>>> getEntriesForMe(
+    public Mono<ResponseEntity<ApiResponse<PageResponse<SlamBookEntryResponse>>>> getEntriesForMe(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            SlamBookEntryFilterRequest filter,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Get entries for user: {}", userDetails.getUserId());
-        return slamBookService.getEntriesForMe(userDetails)
-                .collectList()
-                .map(entries -> ResponseEntity.ok(ApiResponse.success(entries)));
+        return slamBookService.getEntriesForMe(userDetails, filter, cursor, size)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page)));
     }
 
     @GetMapping("/entries/by-me")
-    public Mono<ResponseEntity<ApiResponse<List<SlamBookEntryResponse>>>> getEntriesByMe(
+    public Mono<ResponseEntity<ApiResponse<PageResponse<SlamBookEntryResponse>>>> getEntriesByMe(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            SlamBookEntryFilterRequest filter,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
         log.info("Get entries by user: {}", userDetails.getUserId());
-        return slamBookService.getEntriesByMe(userDetails)
-                .collectList()
-                .map(entries -> ResponseEntity.ok(ApiResponse.success(entries)));
+        return slamBookService.getEntriesByMe(userDetails, filter, cursor, size)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page)));
     }
 
     @GetMapping("/entries/{id}")
@@ -204,6 +267,17 @@ public class SlamBookController {
                 .map(entry -> ResponseEntity.ok(ApiResponse.success("Reaction removed", entry)));
     }
 
+    @GetMapping("/entries/{id}/reactions")
+    public Mono<ResponseEntity<ApiResponse<PageResponse<ReactionResponse>>>> getReactors(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal CustomUserDetails userDetails) {
+        log.info("Get reactions for entry: {}", id);
+        return slamBookService.getReactors(id, userDetails, cursor, size)
+                .map(page -> ResponseEntity.ok(ApiResponse.success(page)));
+    }
+
     @PostMapping("/entries/{id}/report")
     public Mono<ResponseEntity<ApiResponse<SlamBookEntryResponse>>> reportEntry(
             @PathVariable String id,
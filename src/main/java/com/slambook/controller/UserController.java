@@ -54,9 +54,9 @@ public class UserController {
         log.info("Upload profile picture for user: {}", userDetails.getUserId());
 
         return fileStorageService.uploadProfilePicture(file, userDetails.getUserId())
-                .flatMap(url -> {
+                .flatMap(stored -> {
                     // Update user profile with new picture URL
-                    return userService.updateProfilePicture(userDetails, url)
+                    return userService.updateProfilePicture(userDetails, stored)
                             .map(user -> ResponseEntity.ok(
                                     ApiResponse.success("Profile picture uploaded successfully", user)
                             ));
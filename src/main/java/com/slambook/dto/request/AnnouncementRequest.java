@@ -0,0 +1,22 @@
+package com.slambook.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnnouncementRequest {
+    @NotBlank(message = "Title is required")
+    @Size(max = 200, message = "Title must be at most 200 characters")
+    private String title;
+
+    @NotBlank(message = "Message is required")
+    @Size(max = 2000, message = "Message must be at most 2000 characters")
+    private String message;
+
+    private String actionUrl;
+}
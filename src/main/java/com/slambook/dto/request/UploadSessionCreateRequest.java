@@ -0,0 +1,29 @@
+package com.slambook.dto.request;
+
+import com.slambook.model.SlamBookEntry;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionCreateRequest {
+    @NotNull(message = "Attachment type is required")
+    private SlamBookEntry.AttachmentType type;
+
+    @NotBlank(message = "Filename is required")
+    @Size(max = 255, message = "Filename must be at most 255 characters")
+    private String filename;
+
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+
+    @NotNull(message = "Size is required")
+    @Positive(message = "Size must be positive")
+    private Long size;
+}
@@ -17,6 +17,7 @@ public class NotificationResponse {
     private Notification.NotificationType type;
     private Notification.NotificationContent content;
     private Notification.RelatedEntity relatedEntity;
+    private Integer aggregateCount;
     private Boolean isRead;
     private LocalDateTime createdAt;
 }
@@ -7,15 +7,26 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+/**
+ * Cursor page envelope. Pass {@code nextCursor} back as the {@code cursor} query parameter
+ * to fetch the following page; it is null on the last page.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-class PageResponse<T> {
+public class PageResponse<T> {
     private List<T> content;
-    private Integer page;
     private Integer size;
-    private Long totalElements;
-    private Integer totalPages;
-    private Boolean isLast;
+    private String nextCursor;
+    private Boolean hasMore;
+
+    public static <T> PageResponse<T> of(List<T> content, int size, String nextCursor) {
+        return PageResponse.<T>builder()
+                .content(content)
+                .size(size)
+                .nextCursor(nextCursor)
+                .hasMore(nextCursor != null)
+                .build();
+    }
 }
@@ -24,7 +24,8 @@ public class SlamBookEntryResponse {
     private Map<String, String> responses;
     private Map<String, Integer> ratings;
     private List<SlamBookEntry.Attachment> attachments;
-    private List<ReactionResponse> reactions;
+    private Map<SlamBookEntry.ReactionType, Long> reactionCounts;
+    private SlamBookEntry.ReactionType myReaction;
     private SlamBookEntry.Visibility visibility;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
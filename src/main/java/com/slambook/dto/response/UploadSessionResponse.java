@@ -0,0 +1,24 @@
+package com.slambook.dto.response;
+
+import com.slambook.model.SlamBookEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+    private String id;
+    private String entryId;
+    private SlamBookEntry.AttachmentType type;
+    private String filename;
+    private Long size;
+    private Long offset;        // bytes received so far; the next chunk starts here
+    private Long maxChunkSize;
+    private LocalDateTime expiresAt;
+}
@@ -15,6 +15,7 @@ public class UserBasicInfo {
     private String lastName;
     private String nickname;
     private String profilePicture;
+    private String profilePictureThumbnail;
     private String course;
     private String batch;
 }
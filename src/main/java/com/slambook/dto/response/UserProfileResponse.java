@@ -17,6 +17,7 @@ public class UserProfileResponse {
     private String lastName;
     private String nickname;
     private String profilePicture;
+    private String profilePictureThumbnail;
     private String course;
     private String batch;
     private String rollNumber;
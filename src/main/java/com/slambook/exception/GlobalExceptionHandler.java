@@ -2,6 +2,7 @@ package com.slambook.exception;
 
 import com.slambook.dto.response.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -58,6 +59,15 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage())));
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public Mono<ResponseEntity<ApiResponse<Void>>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        log.warn("Too many requests exception: {}", ex.getMessage());
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error(ex.getMessage())));
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     public Mono<ResponseEntity<ApiResponse<Void>>> handleAccessDeniedException(AccessDeniedException ex) {
         log.error("Access denied exception: {}", ex.getMessage());
@@ -0,0 +1,35 @@
+package com.slambook.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * College-wide announcement, stored once and merged into each member's notification feed on read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "announcements")
+@CompoundIndex(name = "college_created_idx", def = "{'collegeId': 1, 'createdAt': -1, '_id': -1}")
+public class Announcement {
+
+    @Id
+    private String id;
+
+    private String collegeId;
+
+    private String title;
+    private String message;
+    private String actionUrl;
+
+    private String createdBy;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.slambook.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * A user's read markers for announcements: everything created at or before {@code readUpTo} is read,
+ * plus the individually read announcements in {@code readIds}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "announcement_read_states")
+public class AnnouncementReadState {
+
+    @Id
+    private String userId;
+
+    private LocalDateTime readUpTo;
+    private Set<String> readIds;
+
+    private LocalDateTime updatedAt;
+
+    public boolean isRead(Announcement announcement) {
+        return (readUpTo != null && !announcement.getCreatedAt().isAfter(readUpTo)) ||
+                (readIds != null && readIds.contains(announcement.getId()));
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -15,6 +17,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "notifications")
+@CompoundIndexes({
+        // Inbox listings, newest first; _id breaks ties between notifications created in the same instant
+        @CompoundIndex(name = "user_read_created_idx", def = "{'userId': 1, 'isRead': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "user_created_idx", def = "{'userId': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Notification {
 
     @Id
@@ -23,16 +30,18 @@ public class Notification {
     @Indexed
     private String collegeId;
 
-    @Indexed
     private String userId;
 
     private NotificationType type;
     private NotificationContent content;
     private RelatedEntity relatedEntity;
 
-    @Indexed
     private Boolean isRead;
 
+    // Coalescing: events folded into this notification, and when its window opened
+    private Integer aggregateCount;
+    private LocalDateTime windowStartedAt;
+
     private LocalDateTime createdAt;
     private LocalDateTime readAt;
 
@@ -0,0 +1,38 @@
+package com.slambook.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact copy of a notification removed from the live collection by retention.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notifications_archive")
+@CompoundIndex(name = "user_created_idx", def = "{'userId': 1, 'createdAt': -1}")
+public class NotificationArchive {
+
+    @Id
+    private String id;  // Same id as the original notification
+
+    private String collegeId;
+    private String userId;
+    private Notification.NotificationType type;
+    private String title;
+    private String relatedEntityId;
+    private Integer aggregateCount;
+    private Boolean isRead;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+    private LocalDateTime archivedAt;
+}
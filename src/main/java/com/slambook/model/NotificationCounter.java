@@ -0,0 +1,33 @@
+package com.slambook.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized per-user notification counts, maintained with atomic $inc updates.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    private String userId;
+
+    private Long unread;
+
+    // Upper bound of the user's stored notifications: expiry and deletes do not lower it, retention does
+    @Indexed(sparse = true)
+    private Long total;
+
+    private LocalDateTime updatedAt;
+}
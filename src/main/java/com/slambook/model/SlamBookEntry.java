@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -18,7 +19,12 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "slambook_entries")
-@CompoundIndex(name = "written_for_by_idx", def = "{'writtenFor': 1, 'writtenBy': 1}", unique = true)
+@CompoundIndexes({
+        @CompoundIndex(name = "written_for_by_idx", def = "{'writtenFor': 1, 'writtenBy': 1}", unique = true),
+        // Keyset pagination: _id breaks ties between entries created in the same instant
+        @CompoundIndex(name = "written_for_created_idx", def = "{'writtenFor': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "written_by_created_idx", def = "{'writtenBy': 1, 'createdAt': -1, '_id': -1}")
+})
 public class SlamBookEntry {
 
     @Id
@@ -27,10 +33,8 @@ public class SlamBookEntry {
     @Indexed
     private String collegeId;
 
-    @Indexed
     private String writtenFor;  // User ID who owns this slam book page
 
-    @Indexed
     private String writtenBy;   // User ID who filled this entry
 
     private Boolean isAnonymous;
@@ -46,6 +50,7 @@ public class SlamBookEntry {
 
     // Reactions
     private List<Reaction> reactions;
+    private Map<ReactionType, Long> reactionCounts;  // Kept in step with reactions by atomic $inc
 
     // Moderation
     private Boolean isReported;
@@ -68,6 +73,7 @@ public class SlamBookEntry {
         private String url;
         private String thumbnail;
         private Long size;
+        private String checksum;    // SHA-256, hex
         private String filename;
     }
 
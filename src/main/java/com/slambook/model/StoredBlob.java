@@ -0,0 +1,33 @@
+package com.slambook.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reference count of a content-addressed upload. {@code id} is the blob's file name (SHA-256 plus extension);
+ * the file is deleted when the last reference is released.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "blobs")
+public class StoredBlob {
+
+    @Id
+    private String id;
+
+    private String checksum;
+    private Long size;
+
+    private Long refCount;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,41 @@
+package com.slambook.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable attachment upload in progress. Chunks are written into a staging file on the instance that
+ * created the session; {@code received} is the offset up to which they are durably stored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "upload_sessions")
+public class UploadSession {
+
+    @Id
+    private String id;
+
+    private String userId;
+    private String entryId;
+    private SlamBookEntry.AttachmentType type;
+
+    private String filename;
+    private String contentType;
+    private Long size;
+    private Long received;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Indexed
+    private LocalDateTime expiresAt;
+}
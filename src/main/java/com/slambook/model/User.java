@@ -53,6 +53,7 @@ public class User {
         private String lastName;
         private String nickname;
         private String profilePicture;
+        private String profilePictureThumbnail;
         private String course;
         private String batch;
         private String rollNumber;
@@ -0,0 +1,28 @@
+package com.slambook.repository;
+
+import com.slambook.model.AnnouncementReadState;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface AnnouncementReadStateRepositoryCustom {
+
+    /**
+     * Create the user's read markers with the given watermark unless they already exist; emits the stored state.
+     */
+    Mono<AnnouncementReadState> initialize(String userId, LocalDateTime readUpTo);
+
+    Mono<Void> addRead(String userId, String announcementId);
+
+    /**
+     * Move the watermark forward to {@code readUpTo} (never back). When {@code clearReadIds} is set the
+     * individual markers are dropped, which is only safe when the watermark covers all of them.
+     */
+    Mono<Void> advanceReadUpTo(String userId, LocalDateTime readUpTo, boolean clearReadIds);
+
+    /**
+     * Move the watermark forward to {@code readUpTo} (never back) and drop the individual markers in {@code covered}.
+     */
+    Mono<Void> foldReadIds(String userId, LocalDateTime readUpTo, Collection<String> covered);
+}
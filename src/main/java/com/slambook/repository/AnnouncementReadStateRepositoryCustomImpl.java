@@ -0,0 +1,64 @@
+package com.slambook.repository;
+
+import com.slambook.model.AnnouncementReadState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class AnnouncementReadStateRepositoryCustomImpl implements AnnouncementReadStateRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<AnnouncementReadState> initialize(String userId, LocalDateTime readUpTo) {
+        Update update = new Update()
+                .setOnInsert("readUpTo", readUpTo)
+                .setOnInsert("readIds", Set.of())
+                .setOnInsert("updatedAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(byUser(userId), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), AnnouncementReadState.class);
+    }
+
+    @Override
+    public Mono<Void> addRead(String userId, String announcementId) {
+        Update update = new Update()
+                .addToSet("readIds", announcementId)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.upsert(byUser(userId), update, AnnouncementReadState.class).then();
+    }
+
+    @Override
+    public Mono<Void> advanceReadUpTo(String userId, LocalDateTime readUpTo, boolean clearReadIds) {
+        Update update = new Update()
+                .max("readUpTo", readUpTo)
+                .set("updatedAt", LocalDateTime.now());
+        if (clearReadIds) {
+            update.set("readIds", Set.of());
+        }
+        return mongoTemplate.upsert(byUser(userId), update, AnnouncementReadState.class).then();
+    }
+
+    @Override
+    public Mono<Void> foldReadIds(String userId, LocalDateTime readUpTo, Collection<String> covered) {
+        Update update = new Update()
+                .max("readUpTo", readUpTo)
+                .set("updatedAt", LocalDateTime.now());
+        if (!covered.isEmpty()) {
+            update.pullAll("readIds", covered.toArray());
+        }
+        return mongoTemplate.updateFirst(byUser(userId), update, AnnouncementReadState.class).then();
+    }
+
+    private Query byUser(String userId) {
+        return Query.query(Criteria.where("userId").is(userId));
+    }
+}
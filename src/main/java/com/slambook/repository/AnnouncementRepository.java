@@ -0,0 +1,9 @@
+package com.slambook.repository;
+
+import com.slambook.model.Announcement;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnnouncementRepository extends ReactiveMongoRepository<Announcement, String>, AnnouncementRepositoryCustom {
+}
@@ -0,0 +1,38 @@
+package com.slambook.repository;
+
+import com.slambook.model.Announcement;
+import com.slambook.model.AnnouncementReadState;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface AnnouncementRepositoryCustom {
+
+    /**
+     * A college's announcements, newest first, starting after {@code cursor} (null for the first page).
+     * When {@code unreadFor} is set, only announcements unread under those read markers.
+     */
+    Flux<Announcement> findPageByCollegeId(String collegeId, AnnouncementReadState unreadFor, KeysetCursor cursor, int limit);
+
+    /**
+     * Unread announcements under the given read markers, limited to those created at or before {@code upTo} when set.
+     */
+    Mono<Long> countUnread(String collegeId, AnnouncementReadState readState, LocalDateTime upTo);
+
+    /**
+     * The oldest announcement unread under the given read markers, or empty if all are read.
+     */
+    Mono<Announcement> findOldestUnread(String collegeId, AnnouncementReadState readState);
+
+    /**
+     * The newest announcement created after {@code after} and before {@code before}; either bound may be null.
+     */
+    Mono<Announcement> findNewestBetween(String collegeId, LocalDateTime after, LocalDateTime before);
+
+    /**
+     * Those of {@code ids} that are announcements of the college created after {@code after}.
+     */
+    Flux<String> findIdsCreatedAfter(String collegeId, Collection<String> ids, LocalDateTime after);
+}
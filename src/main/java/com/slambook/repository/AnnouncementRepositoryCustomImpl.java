@@ -0,0 +1,96 @@
+package com.slambook.repository;
+
+import com.slambook.model.Announcement;
+import com.slambook.model.AnnouncementReadState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class AnnouncementRepositoryCustomImpl implements AnnouncementRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    // Served by {collegeId: 1, createdAt: -1, _id: -1}
+    @Override
+    public Flux<Announcement> findPageByCollegeId(String collegeId, AnnouncementReadState unreadFor, KeysetCursor cursor, int limit) {
+        Criteria criteria = Criteria.where("collegeId").is(collegeId);
+        if (unreadFor != null) {
+            applyUnread(criteria, unreadFor, null);
+        }
+        if (cursor != null) {
+            criteria.andOperator(cursor.toCriteria());
+        }
+
+        Query query = Query.query(criteria)
+                .with(KeysetCursor.SORT)
+                .limit(limit);
+
+        return mongoTemplate.find(query, Announcement.class);
+    }
+
+    @Override
+    public Mono<Long> countUnread(String collegeId, AnnouncementReadState readState, LocalDateTime upTo) {
+        Criteria criteria = Criteria.where("collegeId").is(collegeId);
+        applyUnread(criteria, readState, upTo);
+        return mongoTemplate.count(Query.query(criteria), Announcement.class);
+    }
+
+    @Override
+    public Mono<Announcement> findOldestUnread(String collegeId, AnnouncementReadState readState) {
+        Criteria criteria = Criteria.where("collegeId").is(collegeId);
+        applyUnread(criteria, readState, null);
+        Query query = Query.query(criteria)
+                .with(KeysetCursor.SORT.reverse())
+                .limit(1);
+        return mongoTemplate.findOne(query, Announcement.class);
+    }
+
+    @Override
+    public Mono<Announcement> findNewestBetween(String collegeId, LocalDateTime after, LocalDateTime before) {
+        Criteria criteria = Criteria.where("collegeId").is(collegeId);
+        if (after != null || before != null) {
+            Criteria createdAt = criteria.and("createdAt");
+            if (after != null) {
+                createdAt.gt(after);
+            }
+            if (before != null) {
+                createdAt.lt(before);
+            }
+        }
+        Query query = Query.query(criteria)
+                .with(KeysetCursor.SORT)
+                .limit(1);
+        return mongoTemplate.findOne(query, Announcement.class);
+    }
+
+    @Override
+    public Flux<String> findIdsCreatedAfter(String collegeId, Collection<String> ids, LocalDateTime after) {
+        Query query = Query.query(Criteria.where("id").in(ids)
+                .and("collegeId").is(collegeId)
+                .and("createdAt").gt(after));
+        query.fields().include("id");
+        return mongoTemplate.find(query, Announcement.class).map(Announcement::getId);
+    }
+
+    private void applyUnread(Criteria criteria, AnnouncementReadState readState, LocalDateTime upTo) {
+        if (readState.getReadUpTo() != null || upTo != null) {
+            Criteria createdAt = criteria.and("createdAt");
+            if (readState.getReadUpTo() != null) {
+                createdAt.gt(readState.getReadUpTo());
+            }
+            if (upTo != null) {
+                createdAt.lte(upTo);
+            }
+        }
+        if (readState.getReadIds() != null && !readState.getReadIds().isEmpty()) {
+            criteria.and("id").nin(readState.getReadIds());
+        }
+    }
+}
@@ -7,7 +7,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface CollegeRepository extends ReactiveMongoRepository<College, String> {
+public interface CollegeRepository extends ReactiveMongoRepository<College, String>, CollegeRepositoryCustom {
     Mono<College> findByCollegeCode(String collegeCode);
     Mono<Boolean> existsByCollegeCode(String collegeCode);
     Mono<Boolean> existsByEmail(String email);
@@ -0,0 +1,37 @@
+package com.slambook.repository;
+
+import com.slambook.model.College;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface CollegeRepositoryCustom {
+
+    /**
+     * Compute user and entry counts for all given colleges with one aggregation per collection.
+     * Every requested college id is present in the result; colleges without data get zero counts.
+     */
+    Mono<Map<String, College.CollegeStats>> aggregateStats(Collection<String> collegeIds);
+
+    /**
+     * Atomically add the non-null fields of {@code delta} to the persisted stats of a college.
+     */
+    Mono<Void> incrementStats(String collegeId, College.CollegeStats delta);
+
+    /**
+     * Overwrite the persisted stats of a college.
+     */
+    Mono<Void> updateStats(String collegeId, College.CollegeStats stats);
+
+    /**
+     * Set the non-null name, email, phone, address and logo of {@code changes} with a targeted update that
+     * leaves the stats alone. Emits the updated college, or empty if it does not exist.
+     */
+    Mono<College> updateDetails(String collegeId, College changes);
+
+    /**
+     * Replace the settings of a college without touching its stats. Emits the updated college, or empty if it does not exist.
+     */
+    Mono<College> updateSettings(String collegeId, College.CollegeSettings settings);
+}
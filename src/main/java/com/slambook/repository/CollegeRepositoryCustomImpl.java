@@ -0,0 +1,143 @@
+package com.slambook.repository;
+
+import com.slambook.model.College;
+import com.slambook.model.SlamBookEntry;
+import com.slambook.model.User;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CollegeRepositoryCustomImpl implements CollegeRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Map<String, College.CollegeStats>> aggregateStats(Collection<String> collegeIds) {
+        if (collegeIds.isEmpty()) {
+            return Mono.just(new HashMap<>());
+        }
+
+        // users: total, active and pending counts per college in a single $group
+        TypedAggregation<User> userStats = Aggregation.newAggregation(User.class,
+                Aggregation.match(Criteria.where("collegeId").in(collegeIds)),
+                Aggregation.group("collegeId")
+                        .count().as("totalUsers")
+                        .sum(ConditionalOperators
+                                .when(ComparisonOperators.valueOf("isActive").equalToValue(true))
+                                .then(1)
+                                .otherwise(0)).as("activeUsers")
+                        .sum(ConditionalOperators
+                                .when(ComparisonOperators.valueOf("joinRequest.status")
+                                        .equalToValue(User.JoinRequestStatus.PENDING.name()))
+                                .then(1)
+                                .otherwise(0)).as("pendingJoinRequests"));
+
+        TypedAggregation<SlamBookEntry> entryStats = Aggregation.newAggregation(SlamBookEntry.class,
+                Aggregation.match(Criteria.where("collegeId").in(collegeIds)),
+                Aggregation.group("collegeId").count().as("totalSlamBookEntries"));
+
+        return Mono.zip(
+                mongoTemplate.aggregate(userStats, Document.class)
+                        .collectMap(doc -> doc.getString("_id")),
+                mongoTemplate.aggregate(entryStats, Document.class)
+                        .collectMap(doc -> doc.getString("_id"))
+        ).map(tuple -> {
+            Map<String, College.CollegeStats> stats = new HashMap<>();
+            for (String collegeId : collegeIds) {
+                Document users = tuple.getT1().get(collegeId);
+                Document entries = tuple.getT2().get(collegeId);
+
+                stats.put(collegeId, College.CollegeStats.builder()
+                        .totalUsers(intValue(users, "totalUsers"))
+                        .activeUsers(intValue(users, "activeUsers"))
+                        .totalSlamBookEntries(intValue(entries, "totalSlamBookEntries"))
+                        .pendingJoinRequests(intValue(users, "pendingJoinRequests"))
+                        .build());
+            }
+            return stats;
+        });
+    }
+
+    @Override
+    public Mono<Void> incrementStats(String collegeId, College.CollegeStats delta) {
+        Update update = new Update();
+        incrementIfPresent(update, "stats.totalUsers", delta.getTotalUsers());
+        incrementIfPresent(update, "stats.activeUsers", delta.getActiveUsers());
+        incrementIfPresent(update, "stats.totalSlamBookEntries", delta.getTotalSlamBookEntries());
+        incrementIfPresent(update, "stats.pendingJoinRequests", delta.getPendingJoinRequests());
+
+        if (update.getUpdateObject().isEmpty()) {
+            return Mono.empty();
+        }
+
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(collegeId)), update, College.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> updateStats(String collegeId, College.CollegeStats stats) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(collegeId)),
+                Update.update("stats", stats),
+                College.class
+        ).then();
+    }
+
+    @Override
+    public Mono<College> updateDetails(String collegeId, College changes) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        setIfPresent(update, "name", changes.getName());
+        setIfPresent(update, "email", changes.getEmail());
+        setIfPresent(update, "phone", changes.getPhone());
+        setIfPresent(update, "address", changes.getAddress());
+        setIfPresent(update, "logo", changes.getLogo());
+        return modify(collegeId, update);
+    }
+
+    @Override
+    public Mono<College> updateSettings(String collegeId, College.CollegeSettings settings) {
+        Update update = new Update()
+                .set("settings", settings)
+                .set("updatedAt", LocalDateTime.now());
+        return modify(collegeId, update);
+    }
+
+    private Mono<College> modify(String collegeId, Update update) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(collegeId)), update,
+                FindAndModifyOptions.options().returnNew(true), College.class);
+    }
+
+    private void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private void incrementIfPresent(Update update, String field, Integer delta) {
+        if (delta != null && delta != 0) {
+            update.inc(field, delta);
+        }
+    }
+
+    private int intValue(Document document, String field) {
+        if (document == null || document.get(field) == null) {
+            return 0;
+        }
+        return ((Number) document.get(field)).intValue();
+    }
+}
@@ -0,0 +1,76 @@
+package com.slambook.repository;
+
+import com.slambook.exception.BadRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code createdAt} desc, then {@code id} desc.
+ * Clients only ever see the opaque encoded form.
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeysetCursor {
+
+    public static final Sort SORT = sort("id");
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor received from a client; null or blank means "first page".
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Newest-first order with {@code idField} as the tie-breaker.
+     */
+    public static Sort sort(String idField) {
+        return Sort.by(Sort.Direction.DESC, "createdAt")
+                .and(Sort.by(Sort.Direction.DESC, idField));
+    }
+
+    /**
+     * Matches every document that sorts strictly after this cursor in {@link #SORT} order.
+     */
+    public Criteria toCriteria() {
+        return toCriteria("id");
+    }
+
+    /**
+     * Same as {@link #toCriteria()} for listings ordered by {@link #sort(String)} on another tie-breaker field.
+     */
+    public Criteria toCriteria(String idField) {
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and(idField).lt(id));
+    }
+}
@@ -0,0 +1,14 @@
+package com.slambook.repository;
+
+import com.slambook.model.NotificationCounter;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface NotificationCounterRepository extends ReactiveMongoRepository<NotificationCounter, String>, NotificationCounterRepositoryCustom {
+    Flux<NotificationCounter> findByTotalGreaterThan(long total);
+
+    Mono<Boolean> existsByTotalIsNotNull();
+}
@@ -0,0 +1,28 @@
+package com.slambook.repository;
+
+import reactor.core.publisher.Mono;
+
+public interface NotificationCounterRepositoryCustom {
+
+    /**
+     * Atomically add {@code delta} to the user's unread counter. Does nothing if the user has no
+     * counter yet; it is seeded from the real count on first read.
+     */
+    Mono<Void> increment(String userId, long delta);
+
+    /**
+     * Set the counter to {@code actual} only if it still holds {@code expected}; emits whether it was updated.
+     * A concurrent increment makes this a no-op, so reconciliation never overwrites a fresh change.
+     */
+    Mono<Boolean> replace(String userId, Long expected, long actual);
+
+    /**
+     * Atomically add {@code delta} to the user's stored-notification total, creating the counter if needed.
+     */
+    Mono<Void> addTotal(String userId, long delta);
+
+    /**
+     * Set the total to {@code actual} only if it still holds {@code expected}; emits whether it was updated.
+     */
+    Mono<Boolean> replaceTotal(String userId, long expected, long actual);
+}
@@ -0,0 +1,60 @@
+package com.slambook.repository;
+
+import com.slambook.model.NotificationCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class NotificationCounterRepositoryCustomImpl implements NotificationCounterRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Void> increment(String userId, long delta) {
+        // A counter created by addTotal has no unread count until it is seeded
+        Query query = Query.query(Criteria.where("userId").is(userId).and("unread").exists(true));
+        Update update = new Update()
+                .inc("unread", delta)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, NotificationCounter.class).then();
+    }
+
+    @Override
+    public Mono<Boolean> replace(String userId, Long expected, long actual) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        criteria = expected == null ? criteria.and("unread").exists(false) : criteria.and("unread").is(expected);
+        Update update = new Update()
+                .set("unread", actual)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.upsert(Query.query(criteria), update, NotificationCounter.class)
+                .map(result -> result.getModifiedCount() > 0 || result.getUpsertedId() != null)
+                // The counter exists with another value: the upsert tried to insert a second document
+                .onErrorReturn(DuplicateKeyException.class, false);
+    }
+
+    @Override
+    public Mono<Void> addTotal(String userId, long delta) {
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        Update update = new Update()
+                .inc("total", delta)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.upsert(query, update, NotificationCounter.class).then();
+    }
+
+    @Override
+    public Mono<Boolean> replaceTotal(String userId, long expected, long actual) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("total").is(expected));
+        Update update = new Update()
+                .set("total", actual)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, NotificationCounter.class)
+                .map(result -> result.getModifiedCount() > 0);
+    }
+}
@@ -7,11 +7,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface NotificationRepository extends ReactiveMongoRepository<Notification, String> {
+public interface NotificationRepository extends ReactiveMongoRepository<Notification, String>, NotificationRepositoryCustom {
     Flux<Notification> findByUserId(String userId);
     Flux<Notification> findByUserIdAndIsRead(String userId, Boolean isRead);
     Flux<Notification> findByCollegeId(String collegeId);
 
+    Mono<Long> countByUserId(String userId);
     Mono<Long> countByUserIdAndIsRead(String userId, Boolean isRead);
     Mono<Void> deleteByUserIdAndIsRead(String userId, Boolean isRead);
 }
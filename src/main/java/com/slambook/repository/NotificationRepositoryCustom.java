@@ -0,0 +1,72 @@
+package com.slambook.repository;
+
+import com.slambook.model.Notification;
+import com.slambook.model.NotificationCounter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface NotificationRepositoryCustom {
+
+    /**
+     * A user's notifications, newest first, starting after {@code cursor} (null for the first page).
+     * A null {@code isRead} returns read and unread notifications alike.
+     */
+    Flux<Notification> findPageByUserId(String userId, Boolean isRead, KeysetCursor cursor, int limit);
+
+    /**
+     * Mark a user's unread notifications read with a single {@code updateMany}. When {@code upTo} is set,
+     * only notifications at or before that position (newest-first order) are marked; when {@code type}
+     * is set, only notifications of that type. Emits the number of documents modified.
+     */
+    Mono<Long> markAllRead(String userId, KeysetCursor upTo, Notification.NotificationType type);
+
+    /**
+     * Mark one of the user's notifications read if it is still unread. Emits the updated
+     * notification, or empty if it does not exist, belongs to someone else, or was already read.
+     */
+    Mono<Notification> markUnreadAsRead(String notificationId, String userId);
+
+    /**
+     * Delete one of the user's notifications. Emits the deleted notification, or empty if there was none.
+     */
+    Mono<Notification> deleteOwned(String notificationId, String userId);
+
+    /**
+     * Fold an event into the recipient's unread notification with the same type and related entity
+     * whose coalescing window opened at or after {@code windowStart}: bumps its count and moves it to
+     * the top of the inbox. When there is none, stores the event as a new notification in the same
+     * upsert. Emits the stored notification; an {@code aggregateCount} of 1 means it was just inserted.
+     */
+    Mono<Notification> coalesceOrInsert(Notification event, LocalDateTime windowStart);
+
+    /**
+     * Stored notifications per user, as counters with only {@code userId} and {@code total} set.
+     * Scans the whole collection; only used to seed the totals once.
+     */
+    Flux<NotificationCounter> countPerUser();
+
+    /**
+     * Position of the oldest notification to keep when a user keeps only their newest {@code keep};
+     * everything after it in listing order is over the cap. Empty if the user has no more than that.
+     */
+    Mono<KeysetCursor> findLastKept(String userId, int keep);
+
+    Mono<Long> countUnreadAfter(String userId, KeysetCursor cursor);
+
+    /**
+     * Delete the user's notifications that come after {@code cursor} in listing order (i.e. are older).
+     */
+    Mono<Long> deleteAfter(String userId, KeysetCursor cursor);
+
+    /**
+     * Like {@link #deleteAfter}, copying each notification to the archive collection first.
+     */
+    Mono<Long> archiveAfter(String userId, KeysetCursor cursor);
+
+    /**
+     * Move notifications read before {@code readBefore} to the archive collection.
+     */
+    Mono<Long> archiveReadBefore(LocalDateTime readBefore);
+}
@@ -0,0 +1,218 @@
+package com.slambook.repository;
+
+import com.slambook.model.Notification;
+import com.slambook.model.NotificationArchive;
+import com.slambook.model.NotificationCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
+
+    private static final int ARCHIVE_BATCH_SIZE = 1000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    // Served by {userId: 1, isRead: 1, createdAt: -1, _id: -1}, or {userId: 1, createdAt: -1, _id: -1} when isRead is null
+    @Override
+    public Flux<Notification> findPageByUserId(String userId, Boolean isRead, KeysetCursor cursor, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (isRead != null) {
+            criteria.and("isRead").is(isRead);
+        }
+        if (cursor != null) {
+            criteria.andOperator(cursor.toCriteria());
+        }
+
+        Query query = Query.query(criteria)
+                .with(KeysetCursor.SORT)
+                .limit(limit);
+
+        return mongoTemplate.find(query, Notification.class);
+    }
+
+    @Override
+    public Mono<Long> markAllRead(String userId, KeysetCursor upTo, Notification.NotificationType type) {
+        Criteria criteria = Criteria.where("userId").is(userId).and("isRead").is(false);
+        if (type != null) {
+            criteria.and("type").is(type);
+        }
+        if (upTo != null) {
+            criteria.orOperator(
+                    Criteria.where("createdAt").lt(upTo.getCreatedAt()),
+                    Criteria.where("createdAt").is(upTo.getCreatedAt()).and("id").lte(upTo.getId()));
+        }
+
+        Update update = new Update()
+                .set("isRead", true)
+                .set("readAt", LocalDateTime.now());
+
+        return mongoTemplate.updateMulti(Query.query(criteria), update, Notification.class)
+                .map(result -> result.getModifiedCount());
+    }
+
+    @Override
+    public Mono<Notification> markUnreadAsRead(String notificationId, String userId) {
+        Query query = Query.query(Criteria.where("id").is(notificationId)
+                .and("userId").is(userId)
+                .and("isRead").is(false));
+        Update update = new Update()
+                .set("isRead", true)
+                .set("readAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Notification.class);
+    }
+
+    @Override
+    public Mono<Notification> deleteOwned(String notificationId, String userId) {
+        Query query = Query.query(Criteria.where("id").is(notificationId).and("userId").is(userId));
+        return mongoTemplate.findAndRemove(query, Notification.class);
+    }
+
+    @Override
+    public Mono<Notification> coalesceOrInsert(Notification event, LocalDateTime windowStart) {
+        Criteria criteria = Criteria.where("userId").is(event.getUserId())
+                .and("isRead").is(false)
+                .and("type").is(event.getType())
+                .and("windowStartedAt").gte(windowStart);
+        if (event.getRelatedEntity() != null) {
+            criteria.and("relatedEntity.type").is(event.getRelatedEntity().getType())
+                    .and("relatedEntity.id").is(event.getRelatedEntity().getId());
+        } else {
+            criteria.and("relatedEntity").is(null);
+        }
+
+        // An insert takes userId, isRead, type and relatedEntity from the query's equality conditions
+        Update update = new Update()
+                .inc("aggregateCount", 1)
+                .set("createdAt", event.getCreatedAt())
+                .setOnInsert("collegeId", event.getCollegeId())
+                .setOnInsert("content", event.getContent())
+                .setOnInsert("windowStartedAt", event.getWindowStartedAt());
+
+        Query query = Query.query(criteria).with(KeysetCursor.SORT);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Notification.class);
+    }
+
+    @Override
+    public Flux<NotificationCounter> countPerUser() {
+        // The group key lands in _id, which is NotificationCounter.userId
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("userId").count().as("total"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Notification.class), NotificationCounter.class);
+    }
+
+    @Override
+    public Mono<KeysetCursor> findLastKept(String userId, int keep) {
+        // Only the user's (keep + 1)th newest notification proves there is anything to trim
+        Query overflow = Query.query(Criteria.where("userId").is(userId))
+                .with(KeysetCursor.SORT)
+                .skip(keep)
+                .limit(1);
+        overflow.fields().include("id");
+
+        Query lastKept = Query.query(Criteria.where("userId").is(userId))
+                .with(KeysetCursor.SORT)
+                .skip(keep - 1L)
+                .limit(1);
+        lastKept.fields().include("id").include("createdAt");
+
+        return mongoTemplate.findOne(overflow, Notification.class)
+                .flatMap(ignored -> mongoTemplate.findOne(lastKept, Notification.class))
+                .map(notification -> new KeysetCursor(notification.getCreatedAt(), notification.getId()));
+    }
+
+    @Override
+    public Mono<Long> countUnreadAfter(String userId, KeysetCursor cursor) {
+        Query query = Query.query(Criteria.where("userId").is(userId)
+                .and("isRead").is(false)
+                .andOperator(cursor.toCriteria()));
+        return mongoTemplate.count(query, Notification.class);
+    }
+
+    @Override
+    public Mono<Long> deleteAfter(String userId, KeysetCursor cursor) {
+        Query query = Query.query(Criteria.where("userId").is(userId).andOperator(cursor.toCriteria()));
+        return mongoTemplate.remove(query, Notification.class)
+                .map(result -> result.getDeletedCount());
+    }
+
+    @Override
+    public Mono<Long> archiveAfter(String userId, KeysetCursor cursor) {
+        return archive(Criteria.where("userId").is(userId).andOperator(cursor.toCriteria()));
+    }
+
+    @Override
+    public Mono<Long> archiveReadBefore(LocalDateTime readBefore) {
+        return archive(Criteria.where("isRead").is(true).and("readAt").lt(readBefore));
+    }
+
+    /**
+     * Copy matching notifications to the archive and delete them, {@value #ARCHIVE_BATCH_SIZE} at a time.
+     */
+    private Mono<Long> archive(Criteria criteria) {
+        return archiveBatch(criteria)
+                .expand(moved -> moved == ARCHIVE_BATCH_SIZE ? archiveBatch(criteria) : Mono.empty())
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> archiveBatch(Criteria criteria) {
+        Query query = Query.query(criteria).limit(ARCHIVE_BATCH_SIZE);
+        LocalDateTime now = LocalDateTime.now();
+
+        return mongoTemplate.find(query, Notification.class)
+                .collectList()
+                .flatMap(notifications -> {
+                    if (notifications.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+
+                    List<NotificationArchive> archived = notifications.stream()
+                            .map(notification -> toArchive(notification, now))
+                            .collect(Collectors.toList());
+                    List<String> ids = notifications.stream()
+                            .map(Notification::getId)
+                            .collect(Collectors.toList());
+
+                    return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationArchive.class)
+                            .insert(archived)
+                            .execute()
+                            // Already archived by a run that stopped before deleting: the copy is there, carry on
+                            .onErrorResume(DuplicateKeyException.class, error -> Mono.empty())
+                            .then(mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), Notification.class))
+                            .thenReturn((long) notifications.size());
+                });
+    }
+
+    private NotificationArchive toArchive(Notification notification, LocalDateTime archivedAt) {
+        return NotificationArchive.builder()
+                .id(notification.getId())
+                .collegeId(notification.getCollegeId())
+                .userId(notification.getUserId())
+                .type(notification.getType())
+                .title(notification.getContent() != null ? notification.getContent().getTitle() : null)
+                .relatedEntityId(notification.getRelatedEntity() != null ? notification.getRelatedEntity().getId() : null)
+                .aggregateCount(notification.getAggregateCount())
+                .isRead(notification.getIsRead())
+                .createdAt(notification.getCreatedAt())
+                .readAt(notification.getReadAt())
+                .archivedAt(archivedAt)
+                .build();
+    }
+}
@@ -7,7 +7,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
-public interface SlamBookEntryRepository extends ReactiveMongoRepository<SlamBookEntry, String> {
+public interface SlamBookEntryRepository extends ReactiveMongoRepository<SlamBookEntry, String>, SlamBookEntryRepositoryCustom {
     Flux<SlamBookEntry> findByCollegeId(String collegeId);
     Flux<SlamBookEntry> findByWrittenFor(String userId);
     Flux<SlamBookEntry> findByWrittenBy(String userId);
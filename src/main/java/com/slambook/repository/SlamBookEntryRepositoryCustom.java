@@ -0,0 +1,75 @@
+package com.slambook.repository;
+
+import com.slambook.dto.request.SlamBookEntryFilterRequest;
+import com.slambook.dto.request.SlamBookEntryUpdateRequest;
+import com.slambook.model.SlamBookEntry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+public interface SlamBookEntryRepositoryCustom {
+
+    /**
+     * Entries written for a user, newest first, starting after {@code cursor} (null for the first page).
+     */
+    Flux<SlamBookEntry> findPageByWrittenFor(String userId, SlamBookEntryFilterRequest filter, KeysetCursor cursor, int limit);
+
+    /**
+     * Entries written by a user, newest first, starting after {@code cursor} (null for the first page).
+     */
+    Flux<SlamBookEntry> findPageByWrittenBy(String userId, SlamBookEntryFilterRequest filter, KeysetCursor cursor, int limit);
+
+    Mono<SlamBookEntry> findByIdExcludingReactions(String entryId);
+
+    /**
+     * For each entry the user reacted to, emits the entry id and that user's reaction only.
+     */
+    Flux<SlamBookEntry> findOwnReactions(Collection<String> entryIds, String userId);
+
+    /**
+     * Set the user's reaction on an entry, replacing any previous one and adjusting
+     * {@code reactionCounts} atomically. Emits the updated entry without its reactions
+     * array, or empty if the entry does not exist.
+     */
+    Mono<SlamBookEntry> upsertReaction(String entryId, SlamBookEntry.Reaction reaction);
+
+    /**
+     * Remove the user's reaction from an entry and decrement its counter atomically.
+     * Emits the updated entry without its reactions array, or empty if the entry does not exist.
+     */
+    Mono<SlamBookEntry> pullReaction(String entryId, String userId);
+
+    /**
+     * Set the non-null fields of {@code request} on an entry with a targeted update that leaves reactions,
+     * their counters and attachments alone. Emits the updated entry, or empty if it does not exist.
+     */
+    Mono<SlamBookEntry> updateContent(String entryId, SlamBookEntryUpdateRequest request);
+
+    /**
+     * Flag an entry as reported. Emits the updated entry, or empty if it does not exist.
+     */
+    Mono<SlamBookEntry> markReported(String entryId, String reportedBy, String reason);
+
+    /**
+     * Append an attachment with $push if the entry was written by {@code writerId}.
+     * Emits the updated entry, or empty if there is no such entry.
+     */
+    Mono<SlamBookEntry> pushAttachment(String entryId, String writerId, SlamBookEntry.Attachment attachment);
+
+    /**
+     * Remove an attachment with $pull. Emits the updated entry, or empty if the entry does not have it
+     * (any more), so exactly one caller sees each attachment go.
+     */
+    Mono<SlamBookEntry> pullAttachment(String entryId, String attachmentId);
+
+    /**
+     * Reactions on an entry, newest first, starting after {@code cursor} (whose id is the reacting user's id).
+     */
+    Flux<SlamBookEntry.Reaction> findReactors(String entryId, KeysetCursor cursor, int limit);
+
+    /**
+     * Derive {@code reactionCounts} for entries written before the counters existed. Emits the number of entries updated.
+     */
+    Mono<Long> backfillReactionCounts();
+}
@@ -0,0 +1,277 @@
+package com.slambook.repository;
+
+import com.slambook.dto.request.SlamBookEntryFilterRequest;
+import com.slambook.dto.request.SlamBookEntryUpdateRequest;
+import com.slambook.model.SlamBookEntry;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class SlamBookEntryRepositoryCustomImpl implements SlamBookEntryRepositoryCustom {
+
+    // Attempts at the read-then-conditional-update sequence before giving up on a contended reaction
+    private static final int REACTION_ATTEMPTS = 3;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<SlamBookEntry> findPageByWrittenFor(String userId, SlamBookEntryFilterRequest filter, KeysetCursor cursor, int limit) {
+        return findPage("writtenFor", userId, filter, cursor, limit);
+    }
+
+    @Override
+    public Flux<SlamBookEntry> findPageByWrittenBy(String userId, SlamBookEntryFilterRequest filter, KeysetCursor cursor, int limit) {
+        return findPage("writtenBy", userId, filter, cursor, limit);
+    }
+
+    // Served by the {<ownerField>: 1, createdAt: -1, _id: -1} indexes on SlamBookEntry
+    private Flux<SlamBookEntry> findPage(String ownerField, String userId, SlamBookEntryFilterRequest filter,
+                                         KeysetCursor cursor, int limit) {
+        Criteria criteria = Criteria.where(ownerField).is(userId);
+
+        if (filter != null) {
+            if (filter.getVisibility() != null) {
+                criteria.and("visibility").is(filter.getVisibility());
+            }
+            if (Boolean.TRUE.equals(filter.getAnonymousOnly())) {
+                criteria.and("isAnonymous").is(true);
+            }
+            if (filter.getFrom() != null || filter.getTo() != null) {
+                Criteria createdAt = criteria.and("createdAt");
+                if (filter.getFrom() != null) {
+                    createdAt.gte(filter.getFrom());
+                }
+                if (filter.getTo() != null) {
+                    createdAt.lte(filter.getTo());
+                }
+            }
+        }
+
+        if (cursor != null) {
+            criteria.andOperator(cursor.toCriteria());
+        }
+
+        Query query = Query.query(criteria)
+                .with(KeysetCursor.SORT)
+                .limit(limit);
+        query.fields().exclude("reactions");
+
+        return mongoTemplate.find(query, SlamBookEntry.class);
+    }
+
+    @Override
+    public Mono<SlamBookEntry> findByIdExcludingReactions(String entryId) {
+        Query query = Query.query(Criteria.where("id").is(entryId));
+        query.fields().exclude("reactions");
+        return mongoTemplate.findOne(query, SlamBookEntry.class);
+    }
+
+    @Override
+    public Flux<SlamBookEntry> findOwnReactions(Collection<String> entryIds, String userId) {
+        Query query = Query.query(Criteria.where("id").in(entryIds)
+                .and("reactions.userId").is(userId));
+        query.fields().include("id").elemMatch("reactions", Criteria.where("userId").is(userId));
+        return mongoTemplate.find(query, SlamBookEntry.class);
+    }
+
+    @Override
+    public Mono<SlamBookEntry> upsertReaction(String entryId, SlamBookEntry.Reaction reaction) {
+        return upsertReaction(entryId, reaction, REACTION_ATTEMPTS);
+    }
+
+    /*
+     * Reads the user's current reaction, then applies one conditional update that moves the
+     * counters from the old type to the new one. The update only matches while the reaction is
+     * still what was read, so a concurrent change makes it miss and the sequence is retried
+     * instead of corrupting the counts.
+     */
+    private Mono<SlamBookEntry> upsertReaction(String entryId, SlamBookEntry.Reaction reaction, int attemptsLeft) {
+        if (attemptsLeft == 0) {
+            return Mono.error(new IllegalStateException("Reaction update kept conflicting for entry " + entryId));
+        }
+
+        return findOwnReaction(entryId, reaction.getUserId())
+                .flatMap(current -> {
+                    SlamBookEntry.ReactionType previous = reactionType(current);
+                    Update update = new Update().set("updatedAt", LocalDateTime.now());
+                    Query query;
+
+                    if (previous == null) {
+                        query = Query.query(Criteria.where("id").is(entryId)
+                                .and("reactions.userId").ne(reaction.getUserId()));
+                        update.push("reactions", reaction)
+                                .inc(countField(reaction.getType()), 1);
+                    } else {
+                        query = Query.query(Criteria.where("id").is(entryId)
+                                .and("reactions").elemMatch(Criteria.where("userId").is(reaction.getUserId())
+                                        .and("type").is(previous)));
+                        update.set("reactions.$.type", reaction.getType())
+                                .set("reactions.$.createdAt", reaction.getCreatedAt());
+                        if (previous != reaction.getType()) {
+                            update.inc(countField(previous), -1)
+                                    .inc(countField(reaction.getType()), 1);
+                        }
+                    }
+
+                    return modify(query, update)
+                            .switchIfEmpty(Mono.defer(() -> upsertReaction(entryId, reaction, attemptsLeft - 1)));
+                });
+    }
+
+    @Override
+    public Mono<SlamBookEntry> pullReaction(String entryId, String userId) {
+        return pullReaction(entryId, userId, REACTION_ATTEMPTS);
+    }
+
+    private Mono<SlamBookEntry> pullReaction(String entryId, String userId, int attemptsLeft) {
+        if (attemptsLeft == 0) {
+            return Mono.error(new IllegalStateException("Reaction removal kept conflicting for entry " + entryId));
+        }
+
+        return findOwnReaction(entryId, userId)
+                .flatMap(current -> {
+                    SlamBookEntry.ReactionType previous = reactionType(current);
+                    if (previous == null) {
+                        return findByIdExcludingReactions(entryId);
+                    }
+
+                    Query query = Query.query(Criteria.where("id").is(entryId)
+                            .and("reactions").elemMatch(Criteria.where("userId").is(userId).and("type").is(previous)));
+                    Update update = new Update()
+                            .pull("reactions", Query.query(Criteria.where("userId").is(userId)).getQueryObject())
+                            .inc(countField(previous), -1)
+                            .set("updatedAt", LocalDateTime.now());
+
+                    return modify(query, update)
+                            .switchIfEmpty(Mono.defer(() -> pullReaction(entryId, userId, attemptsLeft - 1)));
+                });
+    }
+
+    @Override
+    public Mono<SlamBookEntry> updateContent(String entryId, SlamBookEntryUpdateRequest request) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        if (request.getResponses() != null) update.set("responses", request.getResponses());
+        if (request.getRatings() != null) update.set("ratings", request.getRatings());
+        if (request.getVisibility() != null) update.set("visibility", request.getVisibility());
+        return update(entryId, update);
+    }
+
+    @Override
+    public Mono<SlamBookEntry> markReported(String entryId, String reportedBy, String reason) {
+        Update update = new Update()
+                .set("isReported", true)
+                .set("reportReason", reason)
+                .set("reportedBy", reportedBy)
+                .set("reportedAt", LocalDateTime.now());
+        return update(entryId, update);
+    }
+
+    @Override
+    public Mono<SlamBookEntry> pushAttachment(String entryId, String writerId, SlamBookEntry.Attachment attachment) {
+        Query query = Query.query(Criteria.where("id").is(entryId).and("writtenBy").is(writerId));
+        Update update = new Update()
+                .push("attachments", attachment)
+                .set("updatedAt", LocalDateTime.now());
+        return update(query, update);
+    }
+
+    @Override
+    public Mono<SlamBookEntry> pullAttachment(String entryId, String attachmentId) {
+        Query query = Query.query(Criteria.where("id").is(entryId).and("attachments.id").is(attachmentId));
+        Update update = new Update()
+                .pull("attachments", Query.query(Criteria.where("id").is(attachmentId)).getQueryObject())
+                .set("updatedAt", LocalDateTime.now());
+        return update(query, update);
+    }
+
+    @Override
+    public Flux<SlamBookEntry.Reaction> findReactors(String entryId, KeysetCursor cursor, int limit) {
+        if (!ObjectId.isValid(entryId)) {
+            return Flux.empty();
+        }
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(Criteria.where("_id").is(new ObjectId(entryId))));
+        operations.add(Aggregation.unwind("reactions"));
+        operations.add(Aggregation.replaceRoot("reactions"));
+        if (cursor != null) {
+            operations.add(Aggregation.match(cursor.toCriteria("userId")));
+        }
+        operations.add(Aggregation.sort(KeysetCursor.sort("userId")));
+        operations.add(Aggregation.limit(limit));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+                mongoTemplate.getCollectionName(SlamBookEntry.class), SlamBookEntry.Reaction.class);
+    }
+
+    @Override
+    public Mono<Long> backfillReactionCounts() {
+        Query legacy = Query.query(Criteria.where("reactionCounts").exists(false));
+        legacy.fields().include("id").include("reactions");
+
+        return mongoTemplate.find(legacy, SlamBookEntry.class)
+                .concatMap(entry -> {
+                    Map<SlamBookEntry.ReactionType, Long> counts = new EnumMap<>(SlamBookEntry.ReactionType.class);
+                    if (entry.getReactions() != null) {
+                        for (SlamBookEntry.Reaction reaction : entry.getReactions()) {
+                            counts.merge(reaction.getType(), 1L, Long::sum);
+                        }
+                    }
+                    Query query = Query.query(Criteria.where("id").is(entry.getId())
+                            .and("reactionCounts").exists(false));
+                    return mongoTemplate.updateFirst(query, Update.update("reactionCounts", counts), SlamBookEntry.class);
+                })
+                .filter(result -> result.getModifiedCount() > 0)
+                .count();
+    }
+
+    /**
+     * Emits the entry with only its id and, if present, the user's reaction; empty if the entry does not exist.
+     */
+    private Mono<SlamBookEntry> findOwnReaction(String entryId, String userId) {
+        Query query = Query.query(Criteria.where("id").is(entryId));
+        query.fields().include("id").elemMatch("reactions", Criteria.where("userId").is(userId));
+        return mongoTemplate.findOne(query, SlamBookEntry.class);
+    }
+
+    private SlamBookEntry.ReactionType reactionType(SlamBookEntry projected) {
+        if (projected.getReactions() == null || projected.getReactions().isEmpty()) {
+            return null;
+        }
+        return projected.getReactions().get(0).getType();
+    }
+
+    private String countField(SlamBookEntry.ReactionType type) {
+        return "reactionCounts." + type.name();
+    }
+
+    private Mono<SlamBookEntry> modify(Query query, Update update) {
+        query.fields().exclude("reactions");
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), SlamBookEntry.class);
+    }
+
+    // Returns the whole entry, reactions included, so callers can still report the viewer's own reaction
+    private Mono<SlamBookEntry> update(String entryId, Update update) {
+        return update(Query.query(Criteria.where("id").is(entryId)), update);
+    }
+
+    private Mono<SlamBookEntry> update(Query query, Update update) {
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), SlamBookEntry.class);
+    }
+}
@@ -0,0 +1,9 @@
+package com.slambook.repository;
+
+import com.slambook.model.StoredBlob;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoredBlobRepository extends ReactiveMongoRepository<StoredBlob, String>, StoredBlobRepositoryCustom {
+}
@@ -0,0 +1,22 @@
+package com.slambook.repository;
+
+import com.slambook.model.StoredBlob;
+import reactor.core.publisher.Mono;
+
+public interface StoredBlobRepositoryCustom {
+
+    /**
+     * Take a reference, creating the record on first use; emits the updated record.
+     */
+    Mono<StoredBlob> acquire(String id, String checksum, long size);
+
+    /**
+     * Drop a reference; emits the updated record, or empty when there was none to drop.
+     */
+    Mono<StoredBlob> release(String id);
+
+    /**
+     * Remove the record if nothing references it any more; emits whether it was removed.
+     */
+    Mono<Boolean> removeIfUnreferenced(String id);
+}
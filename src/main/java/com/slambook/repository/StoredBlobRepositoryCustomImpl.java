@@ -0,0 +1,47 @@
+package com.slambook.repository;
+
+import com.slambook.model.StoredBlob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class StoredBlobRepositoryCustomImpl implements StoredBlobRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<StoredBlob> acquire(String id, String checksum, long size) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .inc("refCount", 1)
+                .set("updatedAt", now)
+                .setOnInsert("checksum", checksum)
+                .setOnInsert("size", size)
+                .setOnInsert("createdAt", now);
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), StoredBlob.class);
+    }
+
+    @Override
+    public Mono<StoredBlob> release(String id) {
+        Query query = Query.query(Criteria.where("id").is(id).and("refCount").gt(0));
+        Update update = new Update()
+                .inc("refCount", -1)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), StoredBlob.class);
+    }
+
+    @Override
+    public Mono<Boolean> removeIfUnreferenced(String id) {
+        Query query = Query.query(Criteria.where("id").is(id).and("refCount").lte(0));
+        return mongoTemplate.remove(query, StoredBlob.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+}
@@ -0,0 +1,14 @@
+package com.slambook.repository;
+
+import com.slambook.model.UploadSession;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UploadSessionRepository extends ReactiveMongoRepository<UploadSession, String>, UploadSessionRepositoryCustom {
+
+    Flux<UploadSession> findByExpiresAtBefore(LocalDateTime time);
+}
@@ -0,0 +1,20 @@
+package com.slambook.repository;
+
+import com.slambook.model.UploadSession;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+public interface UploadSessionRepositoryCustom {
+
+    /**
+     * Move the committed offset from {@code expectedOffset} to {@code newOffset} and extend the expiry;
+     * emits the updated session, or empty when the offset has moved on meanwhile.
+     */
+    Mono<UploadSession> advance(String id, long expectedOffset, long newOffset, LocalDateTime expiresAt);
+
+    /**
+     * Remove the session if it is still expired at {@code now}; emits whether it was removed.
+     */
+    Mono<Boolean> removeIfExpired(String id, LocalDateTime now);
+}
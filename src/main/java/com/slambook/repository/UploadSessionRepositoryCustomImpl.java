@@ -0,0 +1,35 @@
+package com.slambook.repository;
+
+import com.slambook.model.UploadSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class UploadSessionRepositoryCustomImpl implements UploadSessionRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<UploadSession> advance(String id, long expectedOffset, long newOffset, LocalDateTime expiresAt) {
+        Query query = Query.query(Criteria.where("id").is(id).and("received").is(expectedOffset));
+        Update update = new Update()
+                .set("received", newOffset)
+                .set("expiresAt", expiresAt)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+    }
+
+    @Override
+    public Mono<Boolean> removeIfExpired(String id, LocalDateTime now) {
+        Query query = Query.query(Criteria.where("id").is(id).and("expiresAt").lt(now));
+        return mongoTemplate.remove(query, UploadSession.class)
+                .map(result -> result.getDeletedCount() > 0);
+    }
+}
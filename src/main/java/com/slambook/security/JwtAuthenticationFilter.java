@@ -14,6 +14,7 @@ import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
 import java.util.Collections;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -26,25 +27,27 @@ public class JwtAuthenticationFilter implements WebFilter {
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String token = extractToken(exchange);
 
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            String userId = jwtTokenProvider.getUserIdFromToken(token);
-            String role = jwtTokenProvider.getRoleFromToken(token);
-            String collegeId = jwtTokenProvider.getCollegeIdFromToken(token);
+        if (StringUtils.hasText(token)) {
+            Optional<VerifiedToken> verifiedToken = jwtTokenProvider.verifyToken(token);
 
-            CustomUserDetails userDetails = CustomUserDetails.builder()
-                    .userId(userId)
-                    .role(role)
-                    .collegeId(collegeId)
-                    .build();
+            if (verifiedToken.isPresent()) {
+                VerifiedToken verified = verifiedToken.get();
 
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    Collections.singletonList(new SimpleGrantedAuthority(role))
-            );
+                CustomUserDetails userDetails = CustomUserDetails.builder()
+                        .userId(verified.getUserId())
+                        .role(verified.getRole())
+                        .collegeId(verified.getCollegeId())
+                        .build();
 
-            return chain.filter(exchange)
-                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority(verified.getRole()))
+                );
+
+                return chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+            }
         }
 
         return chain.filter(exchange);
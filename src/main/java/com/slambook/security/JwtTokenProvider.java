@@ -1,19 +1,34 @@
 package com.slambook.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
     @Value("${jwt.secret}")
@@ -25,9 +40,45 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-token-cache-size:50000}")
+    private Long verifiedTokenCacheSize;
+
+    private final MeterRegistry meterRegistry;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Verified tokens keyed by SHA-256 digest of the compact token; each entry expires at the token's exp
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return timeToExpiry(token);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return timeToExpiry(token);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedJwt");
     }
 
     public String generateAccessToken(String userId, String email, String role, String collegeId) {
@@ -43,7 +94,7 @@ public class JwtTokenProvider {
                 .setSubject(userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -56,75 +107,108 @@ public class JwtTokenProvider {
                 .setSubject(userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Verify the token once and return its claims. Tokens that were already verified are
+     * served from cache until they expire, so repeated requests with the same token skip
+     * parsing and signature checks.
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            log.error("JWT claims string is empty");
+            return Optional.empty();
+        }
+
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return Optional.of(cached);
+        }
+
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = VerifiedToken.builder()
+                    .userId(claims.getSubject())
+                    .email(claims.get("email", String.class))
+                    .role(claims.get("role", String.class))
+                    .collegeId(claims.get("collegeId", String.class))
+                    .type(claims.get("type", String.class))
+                    .expiration(claims.getExpiration())
+                    .build();
+            verifiedTokens.put(digest, verified);
+            return Optional.of(verified);
+        } catch (SecurityException ex) {
+            log.error("Invalid JWT signature");
+        } catch (MalformedJwtException ex) {
+            log.error("Invalid JWT token");
+        } catch (ExpiredJwtException ex) {
+            log.error("Expired JWT token");
+        } catch (UnsupportedJwtException ex) {
+            log.error("Unsupported JWT token");
+        } catch (IllegalArgumentException ex) {
+            log.error("JWT claims string is empty");
+        } catch (JwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
+        }
+        return Optional.empty();
+    }
+
     public String getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.getSubject();
+        return getVerifiedToken(token).getUserId();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return (String) claims.get("email");
+        return getVerifiedToken(token).getEmail();
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return (String) claims.get("role");
+        return getVerifiedToken(token).getRole();
     }
 
     public String getCollegeIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return (String) claims.get("collegeId");
+        return getVerifiedToken(token).getCollegeId();
     }
 
     public String getTokenType(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return (String) claims.get("type");
+        return getVerifiedToken(token).getType();
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.getExpiration();
+        return getVerifiedToken(token).getExpiration();
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
     }
 
-    public Boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            log.error("Invalid JWT token");
-        } catch (ExpiredJwtException ex) {
-            log.error("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            log.error("Unsupported JWT token");
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims string is empty");
+    public Boolean isTokenExpired(String token) {
+        return verifyToken(token)
+                .map(VerifiedToken::isExpired)
+                .orElse(true);
+    }
+
+    private VerifiedToken getVerifiedToken(String token) {
+        return verifyToken(token)
+                .orElseThrow(() -> new JwtException("Invalid JWT token"));
+    }
+
+    private long timeToExpiry(VerifiedToken token) {
+        if (token.getExpiration() == null) {
+            return 0;
         }
-        return false;
+        long remainingMillis = token.getExpiration().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
     }
 
-    public Boolean isTokenExpired(String token) {
+    private String digest(String token) {
         try {
-            Date expiration = getExpirationDateFromToken(token);
-            return expiration.before(new Date());
-        } catch (Exception e) {
-            return true;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.slambook.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * Immutable, so instances can be shared from the verified-token cache.
+ */
+@Value
+@Builder
+public class VerifiedToken {
+    String userId;
+    String email;
+    String role;
+    String collegeId;
+    String type;
+    Date expiration;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,279 @@
+package com.slambook.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slambook.dto.request.AnnouncementRequest;
+import com.slambook.dto.response.NotificationResponse;
+import com.slambook.exception.BadRequestException;
+import com.slambook.exception.NotFoundException;
+import com.slambook.model.Announcement;
+import com.slambook.model.AnnouncementReadState;
+import com.slambook.model.Notification;
+import com.slambook.model.User;
+import com.slambook.repository.AnnouncementReadStateRepository;
+import com.slambook.repository.AnnouncementRepository;
+import com.slambook.repository.KeysetCursor;
+import com.slambook.repository.UserRepository;
+import com.slambook.security.CustomUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * College-wide announcements. Each announcement is stored once and merged into members' notification
+ * feeds when they are read, so publishing costs the same whatever the size of the college. Read state
+ * is kept per user as a watermark plus the ids read individually since; the watermark advances past
+ * individually read announcements as soon as nothing older is unread, so the ids stay few.
+ * <p>
+ * Unread counts are cached per user like {@link UnreadNotificationCounter}'s. Reads by the user adjust
+ * the cached value, and publishing or deleting in a college moves that college's epoch, so its members'
+ * counts are recomputed once on their next read rather than on every badge refresh.
+ */
+@Slf4j
+@Service
+public class AnnouncementService {
+
+    private final AnnouncementRepository announcementRepository;
+    private final AnnouncementReadStateRepository readStateRepository;
+    private final UserRepository userRepository;
+    private final NotificationStreamRegistry streamRegistry;
+
+    private final Cache<String, CachedCount> unreadCounts;
+    private final Map<String, Long> collegeEpochs = new ConcurrentHashMap<>();
+
+    public AnnouncementService(
+            AnnouncementRepository announcementRepository,
+            AnnouncementReadStateRepository readStateRepository,
+            UserRepository userRepository,
+            NotificationStreamRegistry streamRegistry,
+            @Value("${app.notifications.unread-counter.cache-max-size:50000}") long maxSize,
+            @Value("${app.notifications.unread-counter.cache-ttl:1m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.announcementRepository = announcementRepository;
+        this.readStateRepository = readStateRepository;
+        this.userRepository = userRepository;
+        this.streamRegistry = streamRegistry;
+        this.unreadCounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, unreadCounts, "unreadAnnouncementCount");
+    }
+
+    public Mono<NotificationResponse> createAnnouncement(AnnouncementRequest request, CustomUserDetails userDetails) {
+        if (!hasCollege(userDetails)) {
+            return Mono.error(new BadRequestException("Announcements must belong to a college"));
+        }
+
+        Announcement announcement = Announcement.builder()
+                .collegeId(userDetails.getCollegeId())
+                .title(request.getTitle())
+                .message(request.getMessage())
+                .actionUrl(request.getActionUrl())
+                .createdBy(userDetails.getUserId())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        return announcementRepository.save(announcement)
+                .doOnNext(saved -> advanceEpoch(saved.getCollegeId()))
+                .map(saved -> mapToNotificationResponse(saved, false))
+                .doOnNext(response -> streamRegistry.publishToCollege(announcement.getCollegeId(), response))
+                .doOnSuccess(response -> log.info("Announcement {} published to college {}",
+                        response.getId(), announcement.getCollegeId()));
+    }
+
+    public Mono<Void> deleteAnnouncement(String announcementId, CustomUserDetails userDetails) {
+        return findInCollege(announcementId, userDetails)
+                .switchIfEmpty(Mono.error(new NotFoundException("Announcement not found")))
+                .flatMap(announcement -> announcementRepository.delete(announcement)
+                        .doOnSuccess(done -> advanceEpoch(announcement.getCollegeId())));
+    }
+
+    /**
+     * One page of the user's announcements in notification form, newest first after {@code cursor}.
+     */
+    public Flux<NotificationResponse> findPage(CustomUserDetails userDetails, boolean unreadOnly, KeysetCursor cursor, int limit) {
+        if (!hasCollege(userDetails)) {
+            return Flux.empty();
+        }
+        return readState(userDetails.getUserId())
+                .flatMapMany(state -> announcementRepository
+                        .findPageByCollegeId(userDetails.getCollegeId(), unreadOnly ? state : null, cursor, limit)
+                        .map(announcement -> mapToNotificationResponse(announcement, state.isRead(announcement))));
+    }
+
+    /**
+     * Position of one of the user's announcements, for "mark read up to here".
+     */
+    public Mono<KeysetCursor> findCursor(String announcementId, CustomUserDetails userDetails) {
+        return findInCollege(announcementId, userDetails)
+                .map(announcement -> new KeysetCursor(announcement.getCreatedAt(), announcement.getId()));
+    }
+
+    public Mono<NotificationResponse> markAsRead(String announcementId, CustomUserDetails userDetails) {
+        String userId = userDetails.getUserId();
+        return findInCollege(announcementId, userDetails)
+                // The markers must exist first, or the upsert would create them without a watermark
+                .flatMap(announcement -> readState(userId)
+                        .flatMap(state -> {
+                            if (state.isRead(announcement)) {
+                                return Mono.empty();
+                            }
+                            return readStateRepository.addRead(userId, announcement.getId())
+                                    .doOnSuccess(done -> unreadCounts.asMap().computeIfPresent(userId,
+                                            (id, cached) -> cached.plus(-1)))
+                                    .then(foldReadIds(userId, announcement.getCollegeId()));
+                        })
+                        .thenReturn(mapToNotificationResponse(announcement, true)));
+    }
+
+    /**
+     * Mark the user's announcements read up to and including {@code upTo} (all of them when null).
+     * Emits how many were unread.
+     */
+    public Mono<Long> markAllAsRead(CustomUserDetails userDetails, LocalDateTime upTo) {
+        if (!hasCollege(userDetails)) {
+            return Mono.just(0L);
+        }
+        String userId = userDetails.getUserId();
+        return readState(userId)
+                .flatMap(state -> announcementRepository.countUnread(userDetails.getCollegeId(), state, upTo))
+                // Individual markers are only covered by the watermark when it moves to now
+                .flatMap(marked -> readStateRepository
+                        .advanceReadUpTo(userId, upTo != null ? upTo : LocalDateTime.now(), upTo == null)
+                        .then(upTo != null ? foldReadIds(userId, userDetails.getCollegeId()) : Mono.empty())
+                        .doOnSuccess(done -> unreadCounts.invalidate(userId))
+                        .thenReturn(marked));
+    }
+
+    public Mono<Long> getUnreadCount(CustomUserDetails userDetails) {
+        if (!hasCollege(userDetails)) {
+            return Mono.just(0L);
+        }
+        String userId = userDetails.getUserId();
+        String collegeId = userDetails.getCollegeId();
+        return Mono.defer(() -> {
+            // Read before counting: a publish during the count leaves the cached value stale, not wrong for good
+            long epoch = collegeEpochs.getOrDefault(collegeId, 0L);
+            CachedCount cached = unreadCounts.getIfPresent(userId);
+            if (cached != null && cached.isCurrent(collegeId, epoch)) {
+                return Mono.just(Math.max(cached.count, 0L));
+            }
+
+            return readState(userId)
+                    .flatMap(state -> announcementRepository.countUnread(collegeId, state, null))
+                    .doOnNext(count -> unreadCounts.put(userId, new CachedCount(collegeId, epoch, count)));
+        });
+    }
+
+    /**
+     * The user's read markers, created on first use with the watermark at their sign-up time so
+     * announcements from before they joined don't show up as unread.
+     */
+    private Mono<AnnouncementReadState> readState(String userId) {
+        return readStateRepository.findById(userId)
+                .switchIfEmpty(Mono.defer(() -> userRepository.findById(userId)
+                        .map(User::getCreatedAt)
+                        .defaultIfEmpty(LocalDateTime.now())
+                        .flatMap(joinedAt -> readStateRepository.initialize(userId, joinedAt))));
+    }
+
+    /**
+     * Move the user's watermark up to the newest announcement older than their oldest unread one, and
+     * drop the individual markers it then covers (or that point at announcements no longer in the college).
+     */
+    private Mono<Void> foldReadIds(String userId, String collegeId) {
+        return readStateRepository.findById(userId)
+                .filter(state -> state.getReadUpTo() != null && state.getReadIds() != null && !state.getReadIds().isEmpty())
+                .flatMap(state -> announcementRepository.findOldestUnread(collegeId, state)
+                        .map(oldest -> Optional.of(oldest.getCreatedAt()))
+                        .defaultIfEmpty(Optional.empty())
+                        // Everything created before the oldest unread announcement has been read
+                        .flatMap(oldestUnread -> announcementRepository
+                                .findNewestBetween(collegeId, state.getReadUpTo(), oldestUnread.orElse(null)))
+                        .map(Announcement::getCreatedAt)
+                        .defaultIfEmpty(state.getReadUpTo())
+                        .flatMap(readUpTo -> announcementRepository
+                                .findIdsCreatedAfter(collegeId, state.getReadIds(), readUpTo)
+                                .collect(Collectors.toSet())
+                                .flatMap(stillNeeded -> {
+                                    Set<String> covered = new HashSet<>(state.getReadIds());
+                                    covered.removeAll(stillNeeded);
+                                    if (covered.isEmpty()) {
+                                        return Mono.empty();
+                                    }
+                                    return readStateRepository.foldReadIds(userId, readUpTo, covered);
+                                })))
+                // Only a compaction: the markers are correct without it
+                .onErrorResume(error -> {
+                    log.warn("Failed to fold announcement read markers for user {}", userId, error);
+                    return Mono.empty();
+                });
+    }
+
+    private void advanceEpoch(String collegeId) {
+        collegeEpochs.merge(collegeId, 1L, Long::sum);
+    }
+
+    private Mono<Announcement> findInCollege(String announcementId, CustomUserDetails userDetails) {
+        return announcementRepository.findById(announcementId)
+                .filter(announcement -> announcement.getCollegeId().equals(userDetails.getCollegeId()));
+    }
+
+    private boolean hasCollege(CustomUserDetails userDetails) {
+        return userDetails.getCollegeId() != null && !userDetails.getCollegeId().isBlank();
+    }
+
+    private NotificationResponse mapToNotificationResponse(Announcement announcement, boolean isRead) {
+        return NotificationResponse.builder()
+                .id(announcement.getId())
+                .type(Notification.NotificationType.ANNOUNCEMENT)
+                .content(Notification.NotificationContent.builder()
+                        .title(announcement.getTitle())
+                        .message(announcement.getMessage())
+                        .actionUrl(announcement.getActionUrl())
+                        .build())
+                .relatedEntity(Notification.RelatedEntity.builder()
+                        .type(Notification.EntityType.COLLEGE)
+                        .id(announcement.getCollegeId())
+                        .build())
+                .aggregateCount(1)
+                .isRead(isRead)
+                .createdAt(announcement.getCreatedAt())
+                .build();
+    }
+
+    private static class CachedCount {
+        private final String collegeId;
+        private final long epoch;
+        private final long count;
+
+        private CachedCount(String collegeId, long epoch, long count) {
+            this.collegeId = collegeId;
+            this.epoch = epoch;
+            this.count = count;
+        }
+
+        private boolean isCurrent(String collegeId, long epoch) {
+            return this.collegeId.equals(collegeId) && this.epoch == epoch;
+        }
+
+        private CachedCount plus(long delta) {
+            return new CachedCount(collegeId, epoch, count + delta);
+        }
+    }
+}
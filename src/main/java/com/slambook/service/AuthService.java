@@ -9,12 +9,11 @@ import com.slambook.exception.BadRequestException;
 import com.slambook.exception.NotFoundException;
 import com.slambook.exception.UnauthorizedException;
 import com.slambook.model.User;
-import com.slambook.repository.CollegeRepository;
 import com.slambook.repository.UserRepository;
 import com.slambook.security.JwtTokenProvider;
+import com.slambook.security.VerifiedToken;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -27,8 +26,9 @@ import java.util.UUID;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final CollegeRepository collegeRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final CollegeCache collegeCache;
+    private final CollegeStatsService collegeStatsService;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
 
     public Mono<AuthResponse> login(LoginRequest request) {
@@ -37,18 +37,18 @@ public class AuthService {
             return userRepository.findByEmail(request.getEmail())
                     .filter(user -> user.getRole() == User.UserRole.SUPER_ADMIN)
                     .switchIfEmpty(Mono.error(new UnauthorizedException("Invalid credentials")))
-                    .filter(user -> passwordEncoder.matches(request.getPassword(), user.getPassword()))
+                    .filterWhen(user -> passwordHashingService.matches(request.getPassword(), user.getPassword()))
                     .switchIfEmpty(Mono.error(new UnauthorizedException("Invalid credentials")))
                     .flatMap(this::generateAuthResponse)
                     .doOnSuccess(response -> log.info("Super admin logged in: {}", request.getEmail()));
         }
 
         // Regular user login
-        return collegeRepository.findByCollegeCode(request.getCollegeCode())
+        return collegeCache.findByCollegeCode(request.getCollegeCode())
                 .switchIfEmpty(Mono.error(new NotFoundException("College not found")))
                 .flatMap(college -> userRepository.findByEmailAndCollegeId(request.getEmail(), college.getId()))
                 .switchIfEmpty(Mono.error(new UnauthorizedException("Invalid credentials")))
-                .filter(user -> passwordEncoder.matches(request.getPassword(), user.getPassword()))
+                .filterWhen(user -> passwordHashingService.matches(request.getPassword(), user.getPassword()))
                 .switchIfEmpty(Mono.error(new UnauthorizedException("Invalid credentials")))
                 .filter(user -> user.getJoinRequest() != null &&
                         user.getJoinRequest().getStatus() == User.JoinRequestStatus.APPROVED)
@@ -62,7 +62,7 @@ public class AuthService {
     }
 
     public Mono<AuthResponse> register(RegisterRequest request) {
-        return collegeRepository.findByCollegeCode(request.getCollegeCode())
+        return collegeCache.findByCollegeCode(request.getCollegeCode())
                 .switchIfEmpty(Mono.error(new NotFoundException("College not found with code: " + request.getCollegeCode())))
                 .flatMap(college -> {
                     // Check if college is active
@@ -77,42 +77,46 @@ public class AuthService {
                                     return Mono.error(new BadRequestException("User already exists with this email"));
                                 }
 
-                                // Create new user
-                                User newUser = User.builder()
-                                        .collegeId(college.getId())
-                                        .email(request.getEmail())
-                                        .password(passwordEncoder.encode(request.getPassword()))
-                                        .role(User.UserRole.STUDENT)
-                                        .profile(User.UserProfile.builder()
-                                                .firstName(request.getFirstName())
-                                                .lastName(request.getLastName())
-                                                .course(request.getCourse())
-                                                .batch(request.getBatch())
-                                                .rollNumber(request.getRollNumber())
-                                                .build())
-                                        .slamBookSettings(User.SlamBookSettings.builder()
-                                                .isPublic(true)
-                                                .allowAnonymous(true)
-                                                .build())
-                                        .joinRequest(User.JoinRequest.builder()
-                                                .status(college.getSettings() != null &&
-                                                        college.getSettings().getRequireApproval() != null &&
-                                                        college.getSettings().getRequireApproval()
-                                                        ? User.JoinRequestStatus.PENDING
-                                                        : User.JoinRequestStatus.APPROVED)
-                                                .requestedAt(LocalDateTime.now())
-                                                .build())
-                                        .emailVerified(false)
-                                        .verificationToken(UUID.randomUUID().toString())
-                                        .verificationTokenExpiry(LocalDateTime.now().plusHours(24))
-                                        .createdAt(LocalDateTime.now())
-                                        .updatedAt(LocalDateTime.now())
-                                        .isActive(true)
-                                        .build();
-
-                                return userRepository.save(newUser);
+                                return passwordHashingService.encode(request.getPassword())
+                                        .flatMap(encodedPassword -> {
+                                            // Create new user
+                                            User newUser = User.builder()
+                                                    .collegeId(college.getId())
+                                                    .email(request.getEmail())
+                                                    .password(encodedPassword)
+                                                    .role(User.UserRole.STUDENT)
+                                                    .profile(User.UserProfile.builder()
+                                                            .firstName(request.getFirstName())
+                                                            .lastName(request.getLastName())
+                                                            .course(request.getCourse())
+                                                            .batch(request.getBatch())
+                                                            .rollNumber(request.getRollNumber())
+                                                            .build())
+                                                    .slamBookSettings(User.SlamBookSettings.builder()
+                                                            .isPublic(true)
+                                                            .allowAnonymous(true)
+                                                            .build())
+                                                    .joinRequest(User.JoinRequest.builder()
+                                                            .status(college.getSettings() != null &&
+                                                                    college.getSettings().getRequireApproval() != null &&
+                                                                    college.getSettings().getRequireApproval()
+                                                                    ? User.JoinRequestStatus.PENDING
+                                                                    : User.JoinRequestStatus.APPROVED)
+                                                            .requestedAt(LocalDateTime.now())
+                                                            .build())
+                                                    .emailVerified(false)
+                                                    .verificationToken(UUID.randomUUID().toString())
+                                                    .verificationTokenExpiry(LocalDateTime.now().plusHours(24))
+                                                    .createdAt(LocalDateTime.now())
+                                                    .updatedAt(LocalDateTime.now())
+                                                    .isActive(true)
+                                                    .build();
+
+                                            return userRepository.save(newUser);
+                                        });
                             });
                 })
+                .flatMap(user -> collegeStatsService.userRegistered(user).thenReturn(user))
                 .flatMap(user -> {
                     // If auto-approved, generate tokens
                     if (user.getJoinRequest().getStatus() == User.JoinRequestStatus.APPROVED) {
@@ -128,15 +132,16 @@ public class AuthService {
     }
 
     public Mono<AuthResponse> refreshToken(String refreshToken) {
-        if (!jwtTokenProvider.validateToken(refreshToken)) {
+        VerifiedToken verifiedToken = jwtTokenProvider.verifyToken(refreshToken).orElse(null);
+        if (verifiedToken == null) {
             return Mono.error(new UnauthorizedException("Invalid refresh token"));
         }
 
-        if (!"REFRESH".equals(jwtTokenProvider.getTokenType(refreshToken))) {
+        if (!"REFRESH".equals(verifiedToken.getType())) {
             return Mono.error(new UnauthorizedException("Invalid token type"));
         }
 
-        String userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
+        String userId = verifiedToken.getUserId();
 
         return userRepository.findById(userId)
                 .switchIfEmpty(Mono.error(new NotFoundException("User not found")))
@@ -159,7 +164,7 @@ public class AuthService {
 
         // If a user has college, fetch college details
         if (user.getCollegeId() != null) {
-            return collegeRepository.findById(user.getCollegeId())
+            return collegeCache.findById(user.getCollegeId())
                     .map(college -> {
                         userResponse.setCollegeCode(college.getCollegeCode());
                         userResponse.setCollegeName(college.getName());
@@ -207,6 +212,7 @@ public class AuthService {
                     .lastName(user.getProfile().getLastName())
                     .nickname(user.getProfile().getNickname())
                     .profilePicture(user.getProfile().getProfilePicture())
+                    .profilePictureThumbnail(user.getProfile().getProfilePictureThumbnail())
                     .course(user.getProfile().getCourse())
                     .batch(user.getProfile().getBatch())
                     .rollNumber(user.getProfile().getRollNumber())
@@ -0,0 +1,80 @@
+package com.slambook.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slambook.model.College;
+import com.slambook.repository.CollegeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Read-through cache of {@link College} documents for the auth paths, indexed by id and by collegeCode.
+ * Cached instances are shared, so callers must treat them as read-only; writes go through
+ * {@link CollegeRepository} and then {@link #invalidate(College)}.
+ */
+@Component
+public class CollegeCache {
+
+    private final CollegeRepository collegeRepository;
+    private final Cache<String, College> collegesById;
+    private final Cache<String, College> collegesByCode;
+
+    public CollegeCache(
+            CollegeRepository collegeRepository,
+            @Value("${app.cache.college.max-size:1000}") long maxSize,
+            @Value("${app.cache.college.ttl:30m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.collegeRepository = collegeRepository;
+        this.collegesById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.collegesByCode = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, collegesById, "collegeById");
+        CaffeineCacheMetrics.monitor(meterRegistry, collegesByCode, "collegeByCode");
+    }
+
+    public Mono<College> findById(String collegeId) {
+        return Mono.defer(() -> {
+            College cached = collegesById.getIfPresent(collegeId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return collegeRepository.findById(collegeId)
+                    .doOnNext(this::put);
+        });
+    }
+
+    public Mono<College> findByCollegeCode(String collegeCode) {
+        return Mono.defer(() -> {
+            College cached = collegesByCode.getIfPresent(collegeCode);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return collegeRepository.findByCollegeCode(collegeCode)
+                    .doOnNext(this::put);
+        });
+    }
+
+    public void invalidate(College college) {
+        collegesById.invalidate(college.getId());
+        if (college.getCollegeCode() != null) {
+            collegesByCode.invalidate(college.getCollegeCode());
+        }
+    }
+
+    private void put(College college) {
+        collegesById.put(college.getId(), college);
+        collegesByCode.put(college.getCollegeCode(), college);
+    }
+}
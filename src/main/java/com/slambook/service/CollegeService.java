@@ -10,11 +10,9 @@ import com.slambook.exception.NotFoundException;
 import com.slambook.model.College;
 import com.slambook.model.User;
 import com.slambook.repository.CollegeRepository;
-import com.slambook.repository.SlamBookEntryRepository;
 import com.slambook.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -30,8 +28,9 @@ public class CollegeService {
 
     private final CollegeRepository collegeRepository;
     private final UserRepository userRepository;
-    private final SlamBookEntryRepository slamBookEntryRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final CollegeCache collegeCache;
+    private final CollegeStatsService collegeStatsService;
 
     public Mono<CollegeResponse> createCollege(CollegeCreateRequest request) {
         // Generate unique college code
@@ -59,9 +58,10 @@ public class CollegeService {
                                     .allowAnonymousEntries(true)
                                     .enabledFeatures(new ArrayList<>())
                                     .build())
+                            // Counts include the default admin user created below
                             .stats(College.CollegeStats.builder()
-                                    .totalUsers(0)
-                                    .activeUsers(0)
+                                    .totalUsers(1)
+                                    .activeUsers(1)
                                     .totalSlamBookEntries(0)
                                     .pendingJoinRequests(0)
                                     .build())
@@ -72,49 +72,49 @@ public class CollegeService {
 
                     return collegeRepository.save(college);
                 })
-                .flatMap(college -> {
-                    // Create default admin user
-                    User adminUser = User.builder()
-                            .collegeId(college.getId())
-                            .email(request.getEmail())
-                            .password(passwordEncoder.encode("Admin@123"))  // Default password
-                            .role(User.UserRole.COLLEGE_ADMIN)
-                            .profile(User.UserProfile.builder()
-                                    .firstName("Admin")
-                                    .lastName(college.getName())
-                                    .build())
-                            .joinRequest(User.JoinRequest.builder()
-                                    .status(User.JoinRequestStatus.APPROVED)
-                                    .requestedAt(LocalDateTime.now())
-                                    .approvedAt(LocalDateTime.now())
-                                    .build())
-                            .emailVerified(true)
-                            .createdAt(LocalDateTime.now())
-                            .updatedAt(LocalDateTime.now())
-                            .isActive(true)
-                            .build();
-
-                    return userRepository.save(adminUser).thenReturn(college);
-                })
+                .flatMap(college -> passwordHashingService.encode("Admin@123")  // Default password
+                        .flatMap(encodedPassword -> {
+                            // Create default admin user
+                            User adminUser = User.builder()
+                                    .collegeId(college.getId())
+                                    .email(request.getEmail())
+                                    .password(encodedPassword)
+                                    .role(User.UserRole.COLLEGE_ADMIN)
+                                    .profile(User.UserProfile.builder()
+                                            .firstName("Admin")
+                                            .lastName(college.getName())
+                                            .build())
+                                    .joinRequest(User.JoinRequest.builder()
+                                            .status(User.JoinRequestStatus.APPROVED)
+                                            .requestedAt(LocalDateTime.now())
+                                            .approvedAt(LocalDateTime.now())
+                                            .build())
+                                    .emailVerified(true)
+                                    .createdAt(LocalDateTime.now())
+                                    .updatedAt(LocalDateTime.now())
+                                    .isActive(true)
+                                    .build();
+
+                            return userRepository.save(adminUser).thenReturn(college);
+                        }))
                 .map(this::mapToCollegeResponse)
                 .doOnSuccess(response -> log.info("College created: {} with code: {}",
                         request.getName(), response.getCollegeCode()));
     }
 
     public Mono<CollegeResponse> updateCollege(String id, CollegeUpdateRequest request) {
-        return collegeRepository.findById(id)
-                .switchIfEmpty(Mono.error(new NotFoundException("College not found")))
-                .flatMap(college -> {
-                    if (request.getName() != null) college.setName(request.getName());
-                    if (request.getEmail() != null) college.setEmail(request.getEmail());
-                    if (request.getPhone() != null) college.setPhone(request.getPhone());
-                    if (request.getAddress() != null) college.setAddress(mapToAddress(request.getAddress()));
-                    if (request.getLogo() != null) college.setLogo(request.getLogo());
-
-                    college.setUpdatedAt(LocalDateTime.now());
+        College changes = College.builder()
+                .name(request.getName())
+                .email(request.getEmail())
+                .phone(request.getPhone())
+                .address(request.getAddress() != null ? mapToAddress(request.getAddress()) : null)
+                .logo(request.getLogo())
+                .build();
 
-                    return collegeRepository.save(college);
-                })
+        // Targeted $set: a save() of the whole college would write back stats counted meanwhile
+        return collegeRepository.updateDetails(id, changes)
+                .switchIfEmpty(Mono.error(new NotFoundException("College not found")))
+                .doOnNext(collegeCache::invalidate)
                 .map(this::mapToCollegeResponse);
     }
 
@@ -140,31 +140,27 @@ public class CollegeService {
                         settings.setEnabledFeatures(request.getEnabledFeatures());
                     }
 
-                    college.setSettings(settings);
-                    college.setUpdatedAt(LocalDateTime.now());
-
-                    return collegeRepository.save(college);
+                    return collegeRepository.updateSettings(collegeId, settings);
                 })
+                .switchIfEmpty(Mono.error(new NotFoundException("College not found")))
+                .doOnNext(collegeCache::invalidate)
                 .map(this::mapToCollegeResponse);
     }
 
     public Mono<CollegeResponse> getCollegeById(String id) {
         return collegeRepository.findById(id)
                 .switchIfEmpty(Mono.error(new NotFoundException("College not found")))
-                .flatMap(this::enrichCollegeStats)
                 .map(this::mapToCollegeResponse);
     }
 
     public Flux<CollegeResponse> getAllColleges() {
         return collegeRepository.findAll()
-                .flatMap(this::enrichCollegeStats)
                 .map(this::mapToCollegeResponse);
     }
 
     public Mono<CollegeResponse> getCollegeByCode(String code) {
         return collegeRepository.findByCollegeCode(code)
                 .switchIfEmpty(Mono.error(new NotFoundException("College not found with code: " + code)))
-                .flatMap(this::enrichCollegeStats)
                 .map(this::mapToCollegeResponse);
     }
 
@@ -176,26 +172,12 @@ public class CollegeService {
                     college.setUpdatedAt(LocalDateTime.now());
                     return collegeRepository.save(college);
                 })
+                .doOnNext(collegeCache::invalidate)
+                // Freeze an exact snapshot of the stats for the deactivated college
+                .flatMap(college -> collegeStatsService.reconcile(college.getId()))
                 .then();
     }
 
-    private Mono<College> enrichCollegeStats(College college) {
-        return Mono.zip(
-                userRepository.countByCollegeId(college.getId()),
-                userRepository.countByCollegeIdAndIsActive(college.getId(), true),
-                slamBookEntryRepository.countByCollegeId(college.getId()),
-                userRepository.countByCollegeIdAndJoinRequest_Status(college.getId(), User.JoinRequestStatus.PENDING)
-        ).map(tuple -> {
-            college.setStats(College.CollegeStats.builder()
-                    .totalUsers(tuple.getT1().intValue())
-                    .activeUsers(tuple.getT2().intValue())
-                    .totalSlamBookEntries(tuple.getT3().intValue())
-                    .pendingJoinRequests(tuple.getT4().intValue())
-                    .build());
-            return college;
-        });
-    }
-
     private String generateCollegeCode(String collegeName) {
         String base = collegeName.toUpperCase()
                 .replaceAll("[^A-Z0-9]", "")
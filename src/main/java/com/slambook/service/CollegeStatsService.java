@@ -0,0 +1,112 @@
+package com.slambook.service;
+
+import com.slambook.model.College;
+import com.slambook.model.User;
+import com.slambook.repository.CollegeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link College.CollegeStats} up to date with atomic $inc updates from the write paths,
+ * and periodically reconciles them against real counts to repair any drift.
+ * Counter failures are logged and never fail the request that triggered them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CollegeStatsService {
+
+    private static final int RECONCILE_BATCH_SIZE = 100;
+
+    private final CollegeRepository collegeRepository;
+
+    public Mono<Void> userRegistered(User user) {
+        return increment(user.getCollegeId(), College.CollegeStats.builder()
+                .totalUsers(1)
+                .activeUsers(Boolean.TRUE.equals(user.getIsActive()) ? 1 : 0)
+                .pendingJoinRequests(isPending(user) ? 1 : 0)
+                .build());
+    }
+
+    public Mono<Void> joinRequestResolved(User user) {
+        return increment(user.getCollegeId(), College.CollegeStats.builder()
+                .pendingJoinRequests(-1)
+                .build());
+    }
+
+    public Mono<Void> entryCreated(String collegeId) {
+        return increment(collegeId, College.CollegeStats.builder()
+                .totalSlamBookEntries(1)
+                .build());
+    }
+
+    public Mono<Void> entryDeleted(String collegeId) {
+        return increment(collegeId, College.CollegeStats.builder()
+                .totalSlamBookEntries(-1)
+                .build());
+    }
+
+    /**
+     * Recompute the stats of one college from the users and entries collections.
+     */
+    public Mono<College.CollegeStats> reconcile(String collegeId) {
+        return collegeRepository.aggregateStats(List.of(collegeId))
+                .map(stats -> stats.get(collegeId))
+                .flatMap(stats -> collegeRepository.updateStats(collegeId, stats).thenReturn(stats));
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.college.stats.reconcile-interval:PT1H}",
+            initialDelayString = "${app.college.stats.reconcile-initial-delay:PT1M}")
+    public void reconcileAll() {
+        collegeRepository.findAll()
+                .buffer(RECONCILE_BATCH_SIZE)
+                .concatMap(this::reconcileBatch)
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        repaired -> log.info("College stats reconciled, {} colleges repaired", repaired),
+                        error -> log.error("College stats reconciliation failed", error));
+    }
+
+    private Mono<Long> reconcileBatch(List<College> colleges) {
+        List<String> collegeIds = colleges.stream()
+                .map(College::getId)
+                .collect(Collectors.toList());
+
+        return collegeRepository.aggregateStats(collegeIds)
+                .flatMapMany(actual -> Flux.fromIterable(colleges)
+                        .filter(college -> !Objects.equals(college.getStats(), actual.get(college.getId())))
+                        .concatMap(college -> {
+                            log.warn("College stats drift for {}: stored {}, actual {}",
+                                    college.getId(), college.getStats(), actual.get(college.getId()));
+                            return collegeRepository.updateStats(college.getId(), actual.get(college.getId()))
+                                    .thenReturn(college);
+                        }))
+                .count();
+    }
+
+    private Mono<Void> increment(String collegeId, College.CollegeStats delta) {
+        if (collegeId == null) {
+            return Mono.empty();
+        }
+
+        return collegeRepository.incrementStats(collegeId, delta)
+                .onErrorResume(error -> {
+                    log.warn("Failed to update stats for college {}, reconciliation will repair it", collegeId, error);
+                    return Mono.empty();
+                });
+    }
+
+    private boolean isPending(User user) {
+        return user.getJoinRequest() != null &&
+                user.getJoinRequest().getStatus() == User.JoinRequestStatus.PENDING;
+    }
+}
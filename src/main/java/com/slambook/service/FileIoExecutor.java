@@ -0,0 +1,123 @@
+package com.slambook.service;
+
+import com.slambook.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs filesystem calls, which block, on a dedicated bounded pool so a slow disk never stalls Netty
+ * event-loop threads. When the queue is full, new work is rejected immediately with a 429.
+ */
+@Slf4j
+@Service
+public class FileIoExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+
+    public FileIoExecutor(
+            @Value("${app.file.io.threads:8}") int threads,
+            @Value("${app.file.io.queue-capacity:1000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("file-io-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("file.io.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("File operations waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("file.io.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("File operations currently running")
+                .register(meterRegistry);
+
+        this.rejectedCounter = Counter.builder("file.io.rejected")
+                .description("File operations rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code task} on the pool, timed under {@code operation}. A null result completes empty.
+     */
+    public <T> Mono<T> call(String operation, Callable<T> task) {
+        return Mono.defer(() -> {
+            Timer timer = latencyTimer(operation);
+            CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                executor.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        result.complete(task.call());
+                    } catch (Exception e) {
+                        result.completeExceptionally(e);
+                    } finally {
+                        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejectedCounter.increment();
+                log.warn("File I/O queue is full, rejecting {}", operation);
+                return Mono.error(new TooManyRequestsException("Server is busy, please try again shortly"));
+            }
+            return Mono.fromFuture(result);
+        });
+    }
+
+    /**
+     * Open an asynchronous channel whose reads and writes also complete on this pool.
+     */
+    public Mono<AsynchronousFileChannel> open(Path path, Set<? extends OpenOption> options) {
+        return call("open", () -> AsynchronousFileChannel.open(path, options, executor));
+    }
+
+    public Mono<Void> close(AsynchronousFileChannel channel) {
+        return call("close", () -> {
+            channel.close();
+            return null;
+        });
+    }
+
+    /**
+     * Latency of work done outside {@link #call}, such as a whole channel transfer.
+     */
+    public Timer latencyTimer(String operation) {
+        return latencyTimers.computeIfAbsent(operation, name -> Timer.builder("file.io.latency")
+                .tag("operation", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,35 +1,54 @@
 package com.slambook.service;
 
 import com.slambook.exception.BadRequestException;
+import com.slambook.repository.StoredBlobRepository;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
 import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
 
-    @Value("${app.file.upload-dir:./uploads}")
-    private String uploadDir;
+    private final FileIoExecutor fileIo;
+    private final StorageBackend storageBackend;
+    private final StoredBlobRepository storedBlobRepository;
+    private final ThumbnailService thumbnailService;
 
     @Value("${app.file.max-file-size:5MB}")
     private DataSize maxFileSize;
 
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final String BLOB_FOLDER = "blobs";
+    private static final String BLOB_URL_PREFIX = "/" + BLOB_FOLDER + "/";
+
     private static final List<String> ALLOWED_IMAGE_TYPES = Arrays.asList(
             "image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"
     );
@@ -42,18 +61,70 @@ public class FileStorageService {
             "audio/mpeg", "audio/mp3", "audio/wav", "audio/ogg"
     );
 
-    public Mono<String> uploadProfilePicture(FilePart filePart, String userId) {
-        return uploadFile(filePart, "profiles", userId, ALLOWED_IMAGE_TYPES);
+    public Mono<StoredFile> uploadProfilePicture(FilePart filePart, String userId) {
+        return uploadFile(filePart, "profiles", userId, ALLOWED_IMAGE_TYPES, false, thumbnailService.getAvatarSize());
+    }
+
+    /**
+     * Store an attachment for an entry. The file is content-addressed and the caller owns one reference,
+     * which it must hand to the entry or give back with {@link #releaseFile(String)}.
+     */
+    public Mono<StoredFile> uploadSlamBookAttachment(FilePart filePart, String userId, String attachmentType) {
+        return uploadSlamBookAttachment(filePart.filename(), contentType(filePart), filePart.headers().getContentLength(),
+                filePart.content(), maxFileSize, userId, attachmentType, true);
+    }
+
+    /**
+     * Store an attachment that is not tied to an entry. It gets a file of its own rather than a blob
+     * reference, so {@link #deleteFile(String)} can remove it and nothing is pinned when it is abandoned.
+     */
+    public Mono<StoredFile> uploadStandaloneAttachment(FilePart filePart, String userId, String attachmentType) {
+        return uploadSlamBookAttachment(filePart.filename(), contentType(filePart), filePart.headers().getContentLength(),
+                filePart.content(), maxFileSize, userId, attachmentType, false);
+    }
+
+    /**
+     * Store a completed resumable upload from its staging file. The session has already capped its size,
+     * so the single-request limit doesn't apply.
+     */
+    public Mono<StoredFile> uploadSlamBookAttachment(Path stagingFile, String filename, String contentType, long size,
+                                                     String userId, String attachmentType) {
+        Flux<DataBuffer> content = Flux.usingWhen(
+                fileIo.open(stagingFile, Set.of(StandardOpenOption.READ)),
+                channel -> DataBufferUtils.readAsynchronousFileChannel(() -> channel,
+                        DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE),
+                fileIo::close);
+        return uploadSlamBookAttachment(filename, contentType, size, content, DataSize.ofBytes(size), userId, attachmentType, true);
+    }
+
+    /**
+     * Reject an attachment whose type isn't accepted, before any of its content is sent.
+     */
+    public Mono<Void> checkSlamBookAttachment(String attachmentType, String contentType) {
+        List<String> allowedTypes = switch (attachmentType.toUpperCase()) {
+            case "IMAGE" -> ALLOWED_IMAGE_TYPES;
+            case "VIDEO" -> ALLOWED_VIDEO_TYPES;
+            case "AUDIO" -> ALLOWED_AUDIO_TYPES;
+            default -> null;
+        };
+        if (allowedTypes == null) {
+            return Mono.error(new BadRequestException("Invalid attachment type: " + attachmentType));
+        }
+        return isAllowedType(contentType, allowedTypes) ? Mono.empty() : Mono.error(invalidType(allowedTypes));
     }
 
-    public Mono<String> uploadSlamBookAttachment(FilePart filePart, String userId, String attachmentType) {
+    private Mono<StoredFile> uploadSlamBookAttachment(String filename, String contentType, long contentLength,
+                                                      Flux<DataBuffer> content, DataSize limit,
+                                                      String userId, String attachmentType, boolean contentAddressed) {
         List<String> allowedTypes;
         String folder;
+        Integer thumbnailSize = null;
 
         switch (attachmentType.toUpperCase()) {
             case "IMAGE":
                 allowedTypes = ALLOWED_IMAGE_TYPES;
                 folder = "slambook/images";
+                thumbnailSize = thumbnailService.getPreviewSize();
                 break;
             case "VIDEO":
                 allowedTypes = ALLOWED_VIDEO_TYPES;
@@ -67,91 +138,308 @@ public class FileStorageService {
                 return Mono.error(new BadRequestException("Invalid attachment type: " + attachmentType));
         }
 
-        return uploadFile(filePart, folder, userId, allowedTypes);
+        // Entry attachments are often the same photo shared across many slam books
+        return uploadFile(filename, contentType, contentLength, content, limit,
+                folder, userId, allowedTypes, contentAddressed, thumbnailSize);
     }
 
-    public Mono<String> uploadCollegeLogo(FilePart filePart, String collegeId) {
-        return uploadFile(filePart, "colleges/logos", collegeId, ALLOWED_IMAGE_TYPES);
+    public Mono<StoredFile> uploadCollegeLogo(FilePart filePart, String collegeId) {
+        return uploadFile(filePart, "colleges/logos", collegeId, ALLOWED_IMAGE_TYPES, false, thumbnailService.getAvatarSize());
     }
 
-    private Mono<String> uploadFile(FilePart filePart, String folder, String userId, List<String> allowedTypes) {
+    private Mono<StoredFile> uploadFile(FilePart filePart, String folder, String userId, List<String> allowedTypes,
+                                        boolean contentAddressed, Integer thumbnailSize) {
+        return uploadFile(filePart.filename(), contentType(filePart), filePart.headers().getContentLength(),
+                filePart.content(), maxFileSize, folder, userId, allowedTypes, contentAddressed, thumbnailSize);
+    }
+
+    /**
+     * @param contentLength declared length, or -1 when unknown
+     * @param thumbnailSize for images, the thumbnail size to link from the result; null for no thumbnails
+     */
+    private Mono<StoredFile> uploadFile(String originalFilename, String contentType, long contentLength,
+                                        Flux<DataBuffer> body, DataSize maxSize, String folder, String userId,
+                                        List<String> allowedTypes, boolean contentAddressed, Integer thumbnailSize) {
         // 1. Validate content type
-        String contentType = filePart.headers().getContentType() != null
+        if (!isAllowedType(contentType, allowedTypes)) {
+            return Mono.error(invalidType(allowedTypes));
+        }
+
+        // 2. Reject up front when the length is declared
+        long limit = maxSize.toBytes();
+        if (contentLength > limit) {
+            return Mono.error(fileTooLarge(maxSize));
+        }
+
+        String extension = getFileExtension(originalFilename);
+
+        // Content-addressed uploads are named by their hash, known only once received
+        Mono<String> key = contentAddressed
+                ? uniqueName().map(name -> BLOB_FOLDER + "/upload-" + name + ".part")
+                : uniqueName().map(name -> folder + "/" + namedFile(userId, name, extension));
+
+        return key.flatMap(uploadKey -> {
+            // 3. Stream to storage, counting and hashing each buffer as it arrives
+            MessageDigest digest = sha256();
+            AtomicLong received = new AtomicLong();
+            Flux<DataBuffer> content = body
+                    .map(buffer -> {
+                        if (received.addAndGet(buffer.readableByteCount()) > limit) {
+                            DataBufferUtils.release(buffer);
+                            // Cancels the upload instead of reading the rest of the body
+                            throw fileTooLarge(maxSize);
+                        }
+                        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                            iterator.forEachRemaining(digest::update);
+                        }
+                        return buffer;
+                    });
+
+            Mono<StoredFile> upload = storageBackend.write(uploadKey, content, MediaType.parseMediaType(contentType))
+                    .then(Mono.defer(() -> {
+                        // 4. Content-addressed uploads move to their blob
+                        String checksum = HexFormat.of().formatHex(digest.digest());
+                        Mono<String> stored = contentAddressed
+                                ? storeBlob(uploadKey, checksum, received.get(), extension)
+                                : Mono.just(uploadKey);
+                        return stored.map(storedKey -> StoredFile.builder()
+                                .url(toUrl(storedKey))
+                                .filename(originalFilename)
+                                .size(received.get())
+                                .checksum(checksum)
+                                .build());
+                    }))
+                    .map(stored -> {
+                        log.info("File uploaded successfully. URL: {} ({} bytes)", stored.getUrl(), stored.getSize());
+                        if (thumbnailSize == null) {
+                            return stored;
+                        }
+                        // Generated in the background; the thumbnail URL serves the original until then
+                        thumbnailService.generate(toKey(stored.getUrl()));
+                        return stored.toBuilder()
+                                .thumbnailUrl(thumbnailService.thumbnailUrl(stored.getUrl(), thumbnailSize))
+                                .build();
+                    });
+
+            if (!contentAddressed) {
+                return upload;
+            }
+            // The backend cleans up a failed write; a written but unplaced upload is ours to delete
+            return upload
+                    .onErrorResume(e -> deleteQuietly(uploadKey).then(Mono.error(e)))
+                    .doOnCancel(() -> deleteQuietly(uploadKey).subscribe());
+        });
+    }
+
+    /**
+     * Random name part for an upload. UUID reads the system entropy source, so it stays on the I/O pool.
+     */
+    private Mono<String> uniqueName() {
+        return fileIo.call("name", () -> UUID.randomUUID().toString());
+    }
+
+    private String namedFile(String userId, String uniqueName, String extension) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        // The whole UUID: media URLs are served without authentication, so the name must not be guessable
+        return String.format("%s_%s_%s%s", userId, timestamp, uniqueName, extension);
+    }
+
+    /**
+     * Store under the content's SHA-256, sharing the object with earlier identical uploads. The reference is
+     * taken before the object is placed, so a concurrent release of the last reference can't delete it.
+     */
+    private Mono<String> storeBlob(String uploadKey, String checksum, long size, String extension) {
+        String blobName = checksum + blobExtension(extension);
+        String blobKey = blobKey(blobName);
+        return storedBlobRepository.acquire(blobName, checksum, size)
+                .then(storageBackend.stat(blobKey)
+                        .flatMap(existing -> storageBackend.delete(uploadKey)
+                                .doOnSuccess(done -> log.info("Upload deduplicated to existing blob: {}", blobName))
+                                .thenReturn(blobKey))
+                        .switchIfEmpty(Mono.defer(() -> storageBackend.move(uploadKey, blobKey)
+                                .doOnSuccess(moved -> log.info("File moved to final destination: {}", blobKey))
+                                .thenReturn(blobKey)))
+                        .onErrorResume(e -> releaseBlob(blobName).then(Mono.error(e))));
+    }
+
+    /**
+     * Give up a reference to a file returned by an upload. Content-addressed files are deleted with
+     * their last reference; other files are deleted straight away.
+     */
+    public Mono<Void> releaseFile(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(BLOB_URL_PREFIX)) {
+            return deleteFile(fileUrl);
+        }
+        return releaseBlob(fileUrl.substring(fileUrl.lastIndexOf('/') + 1));
+    }
+
+    private Mono<Void> releaseBlob(String blobName) {
+        return storedBlobRepository.release(blobName)
+                .filter(blob -> blob.getRefCount() <= 0)
+                .flatMap(blob -> deleteBlob(blobName));
+    }
+
+    /**
+     * Set the object aside, drop the record only if still unreferenced, then delete the object or put it back.
+     * An upload that takes a new reference meanwhile either finds the record and restores the object, or
+     * finds the object gone and places its own copy, so a referenced blob is never lost.
+     */
+    private Mono<Void> deleteBlob(String blobName) {
+        String blobKey = blobKey(blobName);
+        return uniqueName()
+                .map(name -> blobKey + "." + name + ".part")
+                .flatMap(setAside -> storageBackend.move(blobKey, setAside)
+                        .filter(Boolean::booleanValue)
+                        .flatMap(moved -> storedBlobRepository.removeIfUnreferenced(blobName))
+                        .flatMap(removed -> {
+                            if (removed) {
+                                return storageBackend.delete(setAside)
+                                        .then(deleteThumbnails(blobKey))
+                                        .doOnSuccess(done -> log.info("Blob deleted: {}", blobName));
+                            }
+                            return storageBackend.stat(blobKey)
+                                    .flatMap(replaced -> storageBackend.delete(setAside))
+                                    .switchIfEmpty(Mono.defer(() -> storageBackend.move(setAside, blobKey).then()));
+                        }))
+                .then();
+    }
+
+    private String blobKey(String blobName) {
+        return BLOB_FOLDER + "/" + blobName.substring(0, 2) + "/" + blobName;
+    }
+
+    /**
+     * Extensions become part of shared file names, so only short alphanumeric ones are kept.
+     */
+    private String blobExtension(String extension) {
+        String normalized = extension.toLowerCase();
+        return normalized.matches("\\.[a-z0-9]{1,8}") ? normalized : "";
+    }
+
+    private static String contentType(FilePart filePart) {
+        return filePart.headers().getContentType() != null
                 ? Objects.requireNonNull(filePart.headers().getContentType()).toString()
                 : "";
-        boolean isAllowedType = allowedTypes.stream()
+    }
+
+    private static boolean isAllowedType(String contentType, List<String> allowedTypes) {
+        return allowedTypes.stream()
                 .anyMatch(type -> contentType.toLowerCase().contains(type.toLowerCase()));
-        if (!isAllowedType) {
-            return Mono.error(new BadRequestException(
-                    "Invalid file type. Allowed types: " + String.join(", ", allowedTypes)
-            ));
-        }
+    }
+
+    private static BadRequestException invalidType(List<String> allowedTypes) {
+        return new BadRequestException("Invalid file type. Allowed types: " + String.join(", ", allowedTypes));
+    }
+
+    private static BadRequestException fileTooLarge(DataSize maxSize) {
+        return new BadRequestException(
+                String.format("File size exceeds maximum limit of %s", maxSize.toMegabytes() + "MB")
+        );
+    }
 
-        Path tempFile;
+    private Mono<Void> deleteQuietly(String key) {
+        return storageBackend.delete(key)
+                .doOnError(e -> log.warn("Failed to delete partial upload: {}", key, e))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private static MessageDigest sha256() {
         try {
-            // 2. Save to a temporary file
-            tempFile = Files.createTempFile("slambook-", "-" + filePart.filename());
-        } catch (IOException e) {
-            log.error("Failed to create temporary file", e);
-            return Mono.error(new RuntimeException("Failed to create temporary file", e));
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
+    }
 
-        return filePart.transferTo(tempFile)
-                .then(Mono.fromCallable(() -> {
-                    // 3. Validate file size
-                    long fileSize = Files.size(tempFile);
-                    if (fileSize > maxFileSize.toBytes()) {
-                        Files.delete(tempFile); // Clean up temp file
-                        throw new BadRequestException(
-                                String.format("File size exceeds maximum limit of %s", maxFileSize.toMegabytes() + "MB")
-                        );
+    /**
+     * Resolve a URL returned by an upload to the stored file, or to its thumbnail closest to
+     * {@code thumbnailSize} when one is given and already generated. Empty when there is no such file
+     * or the URL is malformed or points at an upload still in progress.
+     */
+    public Mono<MediaFile> findMedia(String fileUrl, Integer thumbnailSize) {
+        String key = toKey(fileUrl);
+        if (!isValidKey(key) || key.endsWith(".part")) {
+            return Mono.empty();
+        }
+
+        return storageBackend.stat(key)
+                .flatMap(original -> {
+                    if (thumbnailSize == null) {
+                        return Mono.just(toMediaFile(original, false));
                     }
+                    return storageBackend.stat(thumbnailService.thumbnailKey(key, thumbnailSize))
+                            .map(thumbnail -> toMediaFile(thumbnail, false))
+                            .defaultIfEmpty(toMediaFile(original, true));
+                });
+    }
 
-                    // 4. Move file to final destination
-                    Path uploadPath = Paths.get(uploadDir, folder);
-                    Files.createDirectories(uploadPath);
+    private MediaFile toMediaFile(StorageObject object, boolean substitute) {
+        return MediaFile.builder()
+                .key(object.getKey())
+                .localPath(object.getLocalPath())
+                .contentType(MediaTypeFactory.getMediaType(object.getKey())
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .size(object.getSize())
+                .lastModified(object.getLastModified())
+                .substitute(substitute)
+                .build();
+    }
 
-                    String originalFilename = filePart.filename();
-                    String extension = getFileExtension(originalFilename);
-                    String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-                    String filename = String.format("%s_%s_%s%s",
-                            userId,
-                            timestamp,
-                            UUID.randomUUID().toString().substring(0, 8),
-                            extension);
+    /**
+     * Read {@code count} bytes of a stored file from {@code position}, for responses that can't use zero-copy.
+     */
+    public Flux<DataBuffer> readMedia(MediaFile media, long position, long count, DataBufferFactory bufferFactory) {
+        return storageBackend.read(media.getKey(), position, count, bufferFactory);
+    }
 
-                    Path finalPath = uploadPath.resolve(filename);
-                    Files.move(tempFile, finalPath, StandardCopyOption.REPLACE_EXISTING);
+    public Mono<Void> deleteFile(String fileUrl) {
+        if (fileUrl == null || fileUrl.isBlank()) {
+            return Mono.empty();
+        }
+        if (fileUrl.startsWith(BLOB_URL_PREFIX)) {
+            // Shared by every reference to the same content; only releaseFile may remove it
+            log.warn("Refusing direct delete of shared blob: {}", fileUrl);
+            return Mono.empty();
+        }
+        String key = toKey(fileUrl);
+        if (!isValidKey(key)) {
+            log.warn("Refusing delete of invalid file URL: {}", fileUrl);
+            return Mono.empty();
+        }
+        return storageBackend.delete(key)
+                .then(deleteThumbnails(key))
+                .doOnSuccess(done -> log.info("File deleted: {}", key))
+                .doOnError(e -> log.error("Error deleting file: {}", fileUrl, e))
+                .onErrorResume(e -> Mono.empty());
+    }
 
-                    log.info("File moved to final destination: {}", finalPath);
+    private Mono<Void> deleteThumbnails(String key) {
+        return Flux.fromIterable(thumbnailService.thumbnailKeys(key))
+                .concatMap(storageBackend::delete)
+                .then();
+    }
 
-                    // 5. Return relative URL, ensuring forward slashes for web paths
-                    String relativeUrl = "/" + Path.of(folder).resolve(filename).toString().replace('\\', '/');
-                    log.info("File uploaded successfully. URL: {}", relativeUrl);
-                    return relativeUrl;
-                }));
+    private static String toKey(String fileUrl) {
+        return fileUrl.startsWith("/") ? fileUrl.substring(1) : fileUrl;
     }
 
-    public Mono<Void> deleteFile(String fileUrl) {
-        return Mono.fromRunnable(() -> {
-            if (fileUrl == null || fileUrl.isBlank()) {
-                return;
-            }
-            try {
-                // Convert URL to file a path by combining with the base upload directory
-                String relativePath = fileUrl.startsWith("/") ? fileUrl.substring(1) : fileUrl;
-                Path path = Paths.get(uploadDir).resolve(relativePath);
-
-                if (Files.exists(path)) {
-                    Files.delete(path);
-                    log.info("File deleted: {}", path);
-                } else {
-                    log.warn("File not found for deletion: {}", path);
-                }
-            } catch (IOException e) {
-                log.error("Error deleting file: {}", fileUrl, e);
+    private static String toUrl(String key) {
+        return "/" + key;
+    }
+
+    /**
+     * Relative path of plain segments, so it can't escape the storage root on any backend.
+     */
+    private static boolean isValidKey(String key) {
+        if (key.isEmpty() || key.contains("\\")) {
+            return false;
+        }
+        for (String segment : key.split("/", -1)) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                return false;
             }
-        });
+        }
+        return true;
     }
 
     private String getFileExtension(String filename) {
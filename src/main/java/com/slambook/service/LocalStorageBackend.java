@@ -0,0 +1,134 @@
+package com.slambook.service;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+
+/**
+ * Keeps uploads under {@code app.file.upload-dir}, doing all filesystem work on the {@link FileIoExecutor}
+ * pool. Writes go to a {@code .part} file next to the destination and are renamed into place.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.file.storage", havingValue = "local", matchIfMissing = true)
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final FileIoExecutor fileIo;
+
+    public LocalStorageBackend(
+            @Value("${app.file.upload-dir:./uploads}") String uploadDir,
+            FileIoExecutor fileIo) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.fileIo = fileIo;
+    }
+
+    @Override
+    public Mono<Void> write(String key, Flux<DataBuffer> content, MediaType contentType) {
+        Path path = resolve(key);
+        return fileIo.call("create", () -> {
+                    Files.createDirectories(path.getParent());
+                    // Partial file next to the destination so the final move is a rename
+                    return Files.createTempFile(path.getParent(), "upload-", ".part");
+                })
+                .onErrorMap(IOException.class, e -> new RuntimeException("Failed to create temporary file", e))
+                .flatMap(partFile -> {
+                    Timer.Sample transfer = Timer.start();
+                    return Mono.usingWhen(
+                                    fileIo.open(partFile, Set.of(StandardOpenOption.WRITE)),
+                                    channel -> DataBufferUtils.write(content, channel)
+                                            .map(DataBufferUtils::release)
+                                            .then(),
+                                    fileIo::close)
+                            .doOnSuccess(done -> transfer.stop(fileIo.latencyTimer("write")))
+                            .then(fileIo.call("move", () -> Files.move(partFile, path, StandardCopyOption.ATOMIC_MOVE)))
+                            .onErrorResume(e -> deletePartFile(partFile).then(Mono.error(e)))
+                            .doOnCancel(() -> deletePartFile(partFile).subscribe());
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<StorageObject> stat(String key) {
+        Path path = resolve(key);
+        return fileIo.call("stat", () -> {
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return StorageObject.builder()
+                    .key(key)
+                    .size(attributes.size())
+                    .lastModified(attributes.lastModifiedTime().toInstant())
+                    .localPath(path)
+                    .build();
+        });
+    }
+
+    @Override
+    public Flux<DataBuffer> read(String key, long position, long count, DataBufferFactory bufferFactory) {
+        return Flux.usingWhen(
+                fileIo.open(resolve(key), Set.of(StandardOpenOption.READ)),
+                channel -> DataBufferUtils.takeUntilByteCount(
+                        DataBufferUtils.readAsynchronousFileChannel(() -> channel, position,
+                                bufferFactory, READ_BUFFER_SIZE),
+                        count),
+                fileIo::close);
+    }
+
+    @Override
+    public Mono<Boolean> move(String sourceKey, String targetKey) {
+        Path source = resolve(sourceKey);
+        Path target = resolve(targetKey);
+        return fileIo.call("move", () -> {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        Path path = resolve(key);
+        return fileIo.call("delete", () -> Files.deleteIfExists(path)).then();
+    }
+
+    private Mono<Void> deletePartFile(Path partFile) {
+        return fileIo.call("delete", () -> Files.deleteIfExists(partFile))
+                .doOnError(e -> log.warn("Failed to delete partial upload: {}", partFile, e))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Key outside the upload directory: " + key);
+        }
+        return path;
+    }
+}
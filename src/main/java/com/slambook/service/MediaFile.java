@@ -0,0 +1,30 @@
+package com.slambook.service;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * A stored upload resolved for serving, with the metadata needed for conditional and range requests.
+ */
+@Value
+@Builder
+public class MediaFile {
+    String key;
+    Path localPath;     // local storage only, for zero-copy serving
+    MediaType contentType;
+    long size;
+    Instant lastModified;
+    /** The original, served for a thumbnail that hasn't been generated yet. */
+    boolean substitute;
+
+    /**
+     * Strong validator; upload names are never reused, so size and modification time identify the content.
+     */
+    public String getEtag() {
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+    }
+}
@@ -0,0 +1,209 @@
+package com.slambook.service;
+
+import com.slambook.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Buffers new notifications for up to {@code max-delay} or {@code max-batch-size} items and writes
+ * each batch with a single insertMany, off the request path.
+ * <p>
+ * The queue is bounded: when it is full, the caller writes its notification directly, which slows
+ * producers down instead of growing memory. Pending notifications are flushed on shutdown.
+ * <p>
+ * Ids are assigned before the write, so when insertMany fails partway each notification of the batch
+ * is retried on its own: a duplicate key means it was already stored, and {@code afterInsert} runs
+ * exactly once for every notification that ends up stored.
+ */
+@Slf4j
+@Component
+public class NotificationBatchWriter {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Sinks.Many<PendingInsert> queue;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final Duration shutdownTimeout;
+    private final int retryAttempts;
+    private final Duration retryBackoff;
+
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Timer queueLatency;
+    private final Counter overflowCounter;
+    private final Counter failedCounter;
+
+    private CompletableFuture<Void> completion;
+
+    public NotificationBatchWriter(
+            ReactiveMongoTemplate mongoTemplate,
+            @Value("${app.notifications.batch.max-batch-size:200}") int maxBatchSize,
+            @Value("${app.notifications.batch.max-delay:20ms}") Duration maxDelay,
+            @Value("${app.notifications.batch.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.notifications.batch.shutdown-timeout:10s}") Duration shutdownTimeout,
+            @Value("${app.notifications.batch.retry-attempts:3}") int retryAttempts,
+            @Value("${app.notifications.batch.retry-backoff:100ms}") Duration retryBackoff,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.shutdownTimeout = shutdownTimeout;
+        this.retryAttempts = retryAttempts;
+        this.retryBackoff = retryBackoff;
+        this.queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingInsert>get(queueCapacity).get());
+
+        this.batchSize = DistributionSummary.builder("notifications.batch.size")
+                .description("Notifications written per insertMany")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("notifications.batch.flush")
+                .description("Time to write one batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueLatency = Timer.builder("notifications.batch.latency")
+                .description("Time from enqueue until the notification is written")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("notifications.batch.overflow")
+                .description("Notifications written directly because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("notifications.batch.failed")
+                .description("Notifications lost because they failed to write after retries")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        completion = queue.asFlux()
+                // Fair backpressure: batches wait for the previous flush instead of overflowing concatMap
+                .bufferTimeout(maxBatchSize, maxDelay, true)
+                .concatMap(this::flush)
+                .then()
+                .toFuture();
+    }
+
+    /**
+     * Queue a notification for insertion; {@code afterInsert} runs once it has been written.
+     * Completes as soon as the notification is queued.
+     */
+    public Mono<Void> enqueue(Notification notification, Function<Notification, Mono<Void>> afterInsert) {
+        return Mono.defer(() -> {
+            // A client-side id makes a retried insert detectable as a duplicate
+            if (notification.getId() == null) {
+                notification.setId(new ObjectId().toHexString());
+            }
+
+            Sinks.EmitResult result;
+            // Unicast sinks reject concurrent emitters, so request threads take turns
+            synchronized (queue) {
+                result = queue.tryEmitNext(new PendingInsert(notification, afterInsert, System.nanoTime()));
+            }
+            if (result.isSuccess()) {
+                return Mono.empty();
+            }
+
+            overflowCounter.increment();
+            return mongoTemplate.insert(notification)
+                    .flatMap(afterInsert)
+                    .then();
+        });
+    }
+
+    private Mono<Void> flush(List<PendingInsert> batch) {
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+
+        List<Notification> notifications = batch.stream()
+                .map(pending -> pending.notification)
+                .collect(Collectors.toList());
+        Timer.Sample sample = Timer.start();
+
+        return mongoTemplate.insert(notifications, Notification.class)
+                .collectList()
+                .doOnNext(saved -> {
+                    sample.stop(flushTimer);
+                    batchSize.record(batch.size());
+                })
+                // insertMany preserves order, so saved.get(i) is the stored form of batch.get(i)
+                .flatMapMany(saved -> Flux.range(0, saved.size())
+                        .concatMap(i -> afterInsert(batch.get(i), saved.get(i))))
+                .then()
+                .onErrorResume(error -> {
+                    // An ordered insertMany stops at the first failure; the documents before it are stored
+                    log.warn("Failed to write a batch of {} notifications, retrying them one by one", batch.size(), error);
+                    return Flux.fromIterable(batch)
+                            .concatMap(this::insertOne)
+                            .then();
+                });
+    }
+
+    private Mono<Void> insertOne(PendingInsert pending) {
+        return Mono.defer(() -> mongoTemplate.insert(pending.notification))
+                .retryWhen(Retry.backoff(retryAttempts, retryBackoff)
+                        .filter(error -> !(error instanceof DuplicateKeyException)))
+                // Stored by the failed batch before it stopped
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(pending.notification))
+                .flatMap(saved -> afterInsert(pending, saved))
+                .onErrorResume(error -> {
+                    failedCounter.increment();
+                    log.error("Failed to write notification for user {}", pending.notification.getUserId(), error);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> afterInsert(PendingInsert pending, Notification saved) {
+        queueLatency.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+        return pending.afterInsert.apply(saved)
+                .onErrorResume(error -> {
+                    log.warn("Post-insert handling failed for notification {}", saved.getId(), error);
+                    return Mono.empty();
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (queue) {
+            queue.tryEmitComplete();
+        }
+        try {
+            completion.get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Notification batch writer did not drain within {}", shutdownTimeout, e);
+        }
+    }
+
+    private static class PendingInsert {
+        private final Notification notification;
+        private final Function<Notification, Mono<Void>> afterInsert;
+        private final long enqueuedAt;
+
+        private PendingInsert(Notification notification, Function<Notification, Mono<Void>> afterInsert, long enqueuedAt) {
+            this.notification = notification;
+            this.afterInsert = afterInsert;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
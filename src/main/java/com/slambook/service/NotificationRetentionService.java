@@ -0,0 +1,193 @@
+package com.slambook.service;
+
+import com.slambook.model.Notification;
+import com.slambook.model.NotificationCounter;
+import com.slambook.repository.NotificationCounterRepository;
+import com.slambook.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Bounds the notifications collection.
+ * <ul>
+ *     <li>Read notifications expire {@code read-ttl} after {@code readAt}, via a TTL index.</li>
+ *     <li>Each user keeps at most {@code max-per-user} notifications; a background trimmer removes the oldest.
+ *     It only visits users whose counter {@code total} is over the cap, so a run costs in proportion to them.</li>
+ *     <li>With {@code archive} enabled, expired and trimmed notifications are moved to {@code notifications_archive}
+ *     instead of deleted, and the trimmer handles read expiry itself (a TTL index would delete them first).</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class NotificationRetentionService {
+
+    private static final String READ_TTL_INDEX = "read_at_ttl_idx";
+    private static final String READ_AT_INDEX = "read_at_idx";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationCounterRepository counterRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Duration readTtl;
+    private final int maxPerUser;
+    private final boolean archive;
+
+    public NotificationRetentionService(
+            NotificationRepository notificationRepository,
+            NotificationCounterRepository counterRepository,
+            UnreadNotificationCounter unreadCounter,
+            ReactiveMongoTemplate mongoTemplate,
+            @Value("${app.notifications.retention.read-ttl:30d}") Duration readTtl,
+            @Value("${app.notifications.retention.max-per-user:500}") int maxPerUser,
+            @Value("${app.notifications.retention.archive:false}") boolean archive) {
+        this.notificationRepository = notificationRepository;
+        this.counterRepository = counterRepository;
+        this.unreadCounter = unreadCounter;
+        this.mongoTemplate = mongoTemplate;
+        this.readTtl = readTtl;
+        this.maxPerUser = maxPerUser;
+        this.archive = archive;
+    }
+
+    /**
+     * Create, update or drop the TTL index to match the current settings. In archive mode a plain index on
+     * {@code readAt} takes its place, so the archiver's batches do not scan the collection.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureReadTtlIndex() {
+        ReactiveIndexOperations indexOps = mongoTemplate.indexOps(Notification.class);
+        boolean wanted = !archive && isPositive(readTtl);
+        boolean archiveIndexWanted = archive && isPositive(readTtl);
+
+        indexOps.getIndexInfo()
+                .filter(index -> READ_TTL_INDEX.equals(index.getName()))
+                .next()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(existing -> {
+                    if (!wanted) {
+                        return existing.isPresent() ? indexOps.dropIndex(READ_TTL_INDEX) : Mono.empty();
+                    }
+                    if (existing.isPresent() && matchesTtl(existing.get())) {
+                        return Mono.empty();
+                    }
+                    Index ttlIndex = new Index().on("readAt", Sort.Direction.ASC).named(READ_TTL_INDEX).expire(readTtl);
+                    // Mongo rejects changing expireAfterSeconds through createIndex, so replace the index
+                    Mono<Void> drop = existing.isPresent() ? indexOps.dropIndex(READ_TTL_INDEX) : Mono.empty();
+                    return drop.then(indexOps.ensureIndex(ttlIndex)).then();
+                })
+                .then(Mono.defer(() -> archiveIndexWanted ? ensureArchiveIndex(indexOps) : dropIndexIfExists(indexOps, READ_AT_INDEX)))
+                .subscribe(
+                        ignored -> { },
+                        error -> log.error("Failed to apply the notification readAt indexes", error),
+                        () -> log.info("Notification retention: read TTL {}, max {} per user, archive {}",
+                                wanted ? readTtl : "off", maxPerUser, archive));
+    }
+
+    /**
+     * Seed the per-user totals from the stored notifications the first time this runs against a database
+     * without them; from then on they are kept by {@link #recordInserted(String)} and the trimmer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedTotals() {
+        counterRepository.existsByTotalIsNotNull()
+                .filter(seeded -> !seeded)
+                .flatMapMany(ignored -> notificationRepository.countPerUser())
+                // $inc rather than $set: a total recorded meanwhile can only make it overestimate
+                .concatMap(counted -> counterRepository.addTotal(counted.getUserId(), counted.getTotal()).thenReturn(counted))
+                .count()
+                .subscribe(
+                        seeded -> {
+                            if (seeded > 0) {
+                                log.info("Notification retention: totals seeded for {} users", seeded);
+                            }
+                        },
+                        error -> log.error("Failed to seed notification totals", error));
+    }
+
+    /**
+     * Count a newly stored notification towards its user's total. Failures are logged and never fail the caller.
+     */
+    public Mono<Void> recordInserted(String userId) {
+        return counterRepository.addTotal(userId, 1)
+                .onErrorResume(error -> {
+                    log.warn("Failed to update notification total for user {}", userId, error);
+                    return Mono.empty();
+                });
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.notifications.retention.trim-interval:PT1H}",
+            initialDelayString = "${app.notifications.retention.trim-initial-delay:PT5M}")
+    public void trim() {
+        Mono<Long> expired = archive && isPositive(readTtl)
+                ? notificationRepository.archiveReadBefore(LocalDateTime.now().minus(readTtl))
+                : Mono.just(0L);
+
+        Mono<Long> trimmed = maxPerUser > 0
+                ? counterRepository.findByTotalGreaterThan(maxPerUser)
+                        .concatMap(this::trimUser)
+                        .reduce(0L, Long::sum)
+                : Mono.just(0L);
+
+        expired.zipWith(trimmed)
+                .subscribe(
+                        result -> log.info("Notification retention: {} read notifications archived, {} over-cap notifications {}",
+                                result.getT1(), result.getT2(), archive ? "archived" : "deleted"),
+                        error -> log.error("Notification retention run failed", error));
+    }
+
+    private Mono<Long> trimUser(NotificationCounter counter) {
+        String userId = counter.getUserId();
+        return notificationRepository.findLastKept(userId, maxPerUser)
+                .flatMap(lastKept -> notificationRepository.countUnreadAfter(userId, lastKept)
+                        .flatMap(unread -> (archive
+                                ? notificationRepository.archiveAfter(userId, lastKept)
+                                : notificationRepository.deleteAfter(userId, lastKept))
+                                .flatMap(removed -> unreadCounter.increment(userId, -unread).thenReturn(removed))))
+                .defaultIfEmpty(0L)
+                // Bring the total back to the real count, unless a new notification moved it meanwhile
+                .flatMap(removed -> notificationRepository.countByUserId(userId)
+                        .flatMap(actual -> counterRepository.replaceTotal(userId, counter.getTotal(), actual))
+                        .thenReturn(removed));
+    }
+
+    // Matches archiveReadBefore: {isRead: true, readAt: {$lt: ...}}
+    private Mono<Void> ensureArchiveIndex(ReactiveIndexOperations indexOps) {
+        Index index = new Index().on("readAt", Sort.Direction.ASC)
+                .named(READ_AT_INDEX)
+                .partial(PartialIndexFilter.of(Criteria.where("isRead").is(true)));
+        return indexOps.ensureIndex(index).then();
+    }
+
+    private Mono<Void> dropIndexIfExists(ReactiveIndexOperations indexOps, String name) {
+        return indexOps.getIndexInfo()
+                .filter(index -> name.equals(index.getName()))
+                .next()
+                .flatMap(existing -> indexOps.dropIndex(name));
+    }
+
+    private boolean matchesTtl(IndexInfo index) {
+        return index.getExpireAfter().map(readTtl::equals).orElse(false);
+    }
+
+    private boolean isPositive(Duration duration) {
+        return !duration.isZero() && !duration.isNegative();
+    }
+}
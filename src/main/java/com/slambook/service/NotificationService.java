@@ -1,27 +1,66 @@
 package com.slambook.service;
 
 import com.slambook.dto.response.NotificationResponse;
+import com.slambook.dto.response.PageResponse;
+import com.slambook.exception.BadRequestException;
+import com.slambook.exception.NotFoundException;
 import com.slambook.model.Notification;
 import com.slambook.model.SlamBookEntry;
 import com.slambook.model.User;
+import com.slambook.repository.KeysetCursor;
 import com.slambook.repository.NotificationRepository;
 import com.slambook.security.CustomUserDetails;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // KeysetCursor.SORT order; ObjectId hex strings compare like the ids themselves
+    private static final Comparator<NotificationResponse> FEED_ORDER = Comparator
+            .comparing(NotificationResponse::getCreatedAt)
+            .thenComparing(NotificationResponse::getId)
+            .reversed();
+
     private final NotificationRepository notificationRepository;
+    private final NotificationBatchWriter batchWriter;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationRetentionService retentionService;
+    private final NotificationStreamRegistry streamRegistry;
+    private final AnnouncementService announcementService;
+    private final MeterRegistry meterRegistry;
+
+    // One per markAllAsRead scope: "up-to", "type" or "all"
+    private final Map<String, DistributionSummary> markedReadSummaries = new ConcurrentHashMap<>();
+
+    @Value("${app.notifications.coalescing.window:10m}")
+    private Duration coalescingWindow;
+
+    @Value("${app.notifications.coalescing.types:REACTION}")
+    private Set<Notification.NotificationType> coalescedTypes;
 
-    public Mono<Notification> sendNewEntryNotification(SlamBookEntry entry) {
+    public Mono<Void> sendNewEntryNotification(SlamBookEntry entry) {
         if (entry.getIsAnonymous()) {
             return createNotification(
                     entry.getCollegeId(),
@@ -47,7 +86,7 @@ public class NotificationService {
         }
     }
 
-    public Mono<Notification> sendJoinApprovedNotification(User user) {
+    public Mono<Void> sendJoinApprovedNotification(User user) {
         return createNotification(
                 user.getCollegeId(),
                 user.getId(),
@@ -60,7 +99,7 @@ public class NotificationService {
         );
     }
 
-    public Mono<Notification> sendJoinRejectedNotification(User user, String reason) {
+    public Mono<Void> sendJoinRejectedNotification(User user, String reason) {
         return createNotification(
                 user.getCollegeId(),
                 user.getId(),
@@ -73,7 +112,7 @@ public class NotificationService {
         );
     }
 
-    public Mono<Notification> sendReactionNotification(SlamBookEntry entry, String reactedByUserId) {
+    public Mono<Void> sendReactionNotification(SlamBookEntry entry, String reactedByUserId) {
         // Don't notify if reacting to own entry
         if (entry.getWrittenBy().equals(reactedByUserId)) {
             return Mono.empty();
@@ -91,7 +130,7 @@ public class NotificationService {
         );
     }
 
-    public Mono<Notification> sendNewJoinRequestNotification(User user, String adminId) {
+    public Mono<Void> sendNewJoinRequestNotification(User user, String adminId) {
         return createNotification(
                 user.getCollegeId(),
                 adminId,
@@ -104,50 +143,119 @@ public class NotificationService {
         );
     }
 
-    public Flux<NotificationResponse> getUserNotifications(CustomUserDetails userDetails) {
-        return notificationRepository.findByUserId(userDetails.getUserId())
-                .map(this::mapToNotificationResponse)
-                .sort((n1, n2) -> n2.getCreatedAt().compareTo(n1.getCreatedAt()));
+    public Mono<PageResponse<NotificationResponse>> getUserNotifications(CustomUserDetails userDetails, String cursor, int size) {
+        return findPage(userDetails, null, cursor, size);
+    }
+
+    public Mono<PageResponse<NotificationResponse>> getUnreadNotifications(CustomUserDetails userDetails, String cursor, int size) {
+        return findPage(userDetails, false, cursor, size);
     }
 
-    public Flux<NotificationResponse> getUnreadNotifications(CustomUserDetails userDetails) {
-        return notificationRepository.findByUserIdAndIsRead(userDetails.getUserId(), false)
+    /**
+     * Merges the user's own notifications with their college's announcements. Both sources share the
+     * (createdAt, id) keyset, so one cursor positions both; each fetches one row beyond the page to
+     * learn whether another page exists, and that row is never returned.
+     */
+    private Mono<PageResponse<NotificationResponse>> findPage(CustomUserDetails userDetails, Boolean isRead, String cursor, int size) {
+        if (size < 1) {
+            return Mono.error(new BadRequestException("Page size must be at least 1"));
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        Mono<List<NotificationResponse>> notifications = notificationRepository
+                .findPageByUserId(userDetails.getUserId(), isRead, after, pageSize + 1)
                 .map(this::mapToNotificationResponse)
-                .sort((n1, n2) -> n2.getCreatedAt().compareTo(n1.getCreatedAt()));
+                .collectList();
+        Mono<List<NotificationResponse>> announcements = Boolean.TRUE.equals(isRead)
+                ? Mono.just(List.of())
+                : announcementService.findPage(userDetails, Boolean.FALSE.equals(isRead), after, pageSize + 1).collectList();
+
+        return Mono.zip(notifications, announcements)
+                .map(sources -> {
+                    List<NotificationResponse> fetched = Stream.concat(sources.getT1().stream(), sources.getT2().stream())
+                            .sorted(FEED_ORDER)
+                            .limit(pageSize + 1)
+                            .toList();
+                    boolean hasMore = fetched.size() > pageSize;
+                    List<NotificationResponse> page = hasMore ? fetched.subList(0, pageSize) : fetched;
+                    String nextCursor = null;
+                    if (hasMore) {
+                        NotificationResponse last = page.get(page.size() - 1);
+                        nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+                    }
+                    return PageResponse.of(page, pageSize, nextCursor);
+                });
     }
 
     public Mono<NotificationResponse> markAsRead(String notificationId, CustomUserDetails userDetails) {
-        return notificationRepository.findById(notificationId)
-                .filter(notification -> notification.getUserId().equals(userDetails.getUserId()))
-                .flatMap(notification -> {
-                    notification.setIsRead(true);
-                    notification.setReadAt(LocalDateTime.now());
-                    return notificationRepository.save(notification);
-                })
-                .map(this::mapToNotificationResponse);
+        String userId = userDetails.getUserId();
+        return notificationRepository.markUnreadAsRead(notificationId, userId)
+                .flatMap(notification -> unreadCounter.increment(userId, -1).thenReturn(notification))
+                // Already read (or not the caller's): nothing to count, return it as it is
+                .switchIfEmpty(Mono.defer(() -> notificationRepository.findById(notificationId)
+                        .filter(notification -> notification.getUserId().equals(userId))))
+                .map(this::mapToNotificationResponse)
+                .switchIfEmpty(Mono.defer(() -> announcementService.markAsRead(notificationId, userDetails)));
     }
 
-    public Mono<Void> markAllAsRead(CustomUserDetails userDetails) {
-        return notificationRepository.findByUserIdAndIsRead(userDetails.getUserId(), false)
-                .flatMap(notification -> {
-                    notification.setIsRead(true);
-                    notification.setReadAt(LocalDateTime.now());
-                    return notificationRepository.save(notification);
+    /**
+     * Mark the user's unread notifications and announcements read. {@code upToId} limits it to the given
+     * item and everything older, so items that arrived after the client rendered stay unread;
+     * {@code type} limits it to one notification type. Emits the number of items marked.
+     */
+    public Mono<Long> markAllAsRead(CustomUserDetails userDetails, String upToId, Notification.NotificationType type) {
+        String userId = userDetails.getUserId();
+        Mono<Optional<KeysetCursor>> upTo = upToId == null
+                ? Mono.just(Optional.empty())
+                : notificationRepository.findById(upToId)
+                        .filter(notification -> notification.getUserId().equals(userId))
+                        .map(notification -> new KeysetCursor(notification.getCreatedAt(), notification.getId()))
+                        .switchIfEmpty(Mono.defer(() -> announcementService.findCursor(upToId, userDetails)))
+                        .switchIfEmpty(Mono.error(new NotFoundException("Notification not found")))
+                        .map(Optional::of);
+
+        String scope = upToId != null ? "up-to" : type != null ? "type" : "all";
+        boolean includeNotifications = type != Notification.NotificationType.ANNOUNCEMENT;
+        boolean includeAnnouncements = type == null || type == Notification.NotificationType.ANNOUNCEMENT;
+
+        return upTo.flatMap(cursor -> {
+                    Mono<Long> notifications = includeNotifications
+                            ? notificationRepository.markAllRead(userId, cursor.orElse(null), type)
+                                    .flatMap(marked -> unreadCounter.increment(userId, -marked).thenReturn(marked))
+                            : Mono.just(0L);
+                    Mono<Long> announcements = includeAnnouncements
+                            ? announcementService.markAllAsRead(userDetails, cursor.map(KeysetCursor::getCreatedAt).orElse(null))
+                            : Mono.just(0L);
+                    return Mono.zip(notifications, announcements, Long::sum);
                 })
-                .then();
+                .doOnNext(marked -> markedReadSummary(scope).record(marked));
     }
 
     public Mono<Void> deleteNotification(String notificationId, CustomUserDetails userDetails) {
-        return notificationRepository.findById(notificationId)
-                .filter(notification -> notification.getUserId().equals(userDetails.getUserId()))
-                .flatMap(notificationRepository::delete);
+        return notificationRepository.deleteOwned(notificationId, userDetails.getUserId())
+                .filter(notification -> !Boolean.TRUE.equals(notification.getIsRead()))
+                .flatMap(notification -> unreadCounter.increment(notification.getUserId(), -1));
     }
 
     public Mono<Long> getUnreadCount(CustomUserDetails userDetails) {
-        return notificationRepository.countByUserIdAndIsRead(userDetails.getUserId(), false);
+        return Mono.zip(unreadCounter.get(userDetails.getUserId()), announcementService.getUnreadCount(userDetails), Long::sum);
+    }
+
+    /**
+     * Live notifications for the user, starting with the current unread count.
+     */
+    public Flux<ServerSentEvent<Object>> streamNotifications(CustomUserDetails userDetails) {
+        Flux<ServerSentEvent<Object>> unreadCount = getUnreadCount(userDetails)
+                .map(count -> ServerSentEvent.<Object>builder()
+                        .event(NotificationStreamRegistry.UNREAD_COUNT_EVENT)
+                        .data(count)
+                        .build())
+                .flux();
+        return streamRegistry.connect(userDetails.getUserId(), userDetails.getCollegeId(), unreadCount);
     }
 
-    private Mono<Notification> createNotification(
+    private Mono<Void> createNotification(
             String collegeId,
             String userId,
             Notification.NotificationType type,
@@ -171,6 +279,7 @@ public class NotificationService {
                     .build();
         }
 
+        LocalDateTime now = LocalDateTime.now();
         Notification notification = Notification.builder()
                 .collegeId(collegeId)
                 .userId(userId)
@@ -178,20 +287,78 @@ public class NotificationService {
                 .content(content)
                 .relatedEntity(relatedEntity)
                 .isRead(false)
-                .createdAt(LocalDateTime.now())
+                .aggregateCount(1)
+                .windowStartedAt(now)
+                .createdAt(now)
                 .build();
 
-        return notificationRepository.save(notification);
+        if (isCoalesced(type)) {
+            // Written directly, not batched: a notification still queued in the batch writer would be
+            // invisible to the next event of the burst, which would then start a notification of its own
+            return notificationRepository.coalesceOrInsert(notification, now.minus(coalescingWindow))
+                    .flatMap(stored -> stored.getAggregateCount() == 1
+                            ? afterInsert(stored)
+                            : Mono.fromRunnable(() -> publish(stored)));
+        }
+
+        // Other new documents are written by the batch writer; the counter and live stream follow once stored
+        return batchWriter.enqueue(notification, this::afterInsert);
+    }
+
+    private Mono<Void> afterInsert(Notification saved) {
+        return unreadCounter.increment(saved.getUserId(), 1)
+                .then(retentionService.recordInserted(saved.getUserId()))
+                .then(Mono.fromRunnable(() -> publish(saved)));
+    }
+
+    private DistributionSummary markedReadSummary(String scope) {
+        return markedReadSummaries.computeIfAbsent(scope, name -> DistributionSummary.builder("notifications.marked.read")
+                .description("Notifications marked read per bulk call")
+                .tag("scope", name)
+                .register(meterRegistry));
+    }
+
+    private void publish(Notification notification) {
+        streamRegistry.publish(notification.getUserId(), mapToNotificationResponse(notification));
+    }
+
+    private boolean isCoalesced(Notification.NotificationType type) {
+        return coalescedTypes.contains(type) && !coalescingWindow.isZero() && !coalescingWindow.isNegative();
     }
 
     private NotificationResponse mapToNotificationResponse(Notification notification) {
         return NotificationResponse.builder()
                 .id(notification.getId())
                 .type(notification.getType())
-                .content(notification.getContent())
+                .content(renderContent(notification))
                 .relatedEntity(notification.getRelatedEntity())
+                .aggregateCount(notification.getAggregateCount() != null ? notification.getAggregateCount() : 1)
                 .isRead(notification.getIsRead())
                 .createdAt(notification.getCreatedAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Coalesced notifications store the first event's content; the message reflects the count at read time.
+     */
+    private Notification.NotificationContent renderContent(Notification notification) {
+        Notification.NotificationContent content = notification.getContent();
+        Integer count = notification.getAggregateCount();
+        if (content == null || count == null || count <= 1) {
+            return content;
+        }
+
+        String message = switch (notification.getType()) {
+            case REACTION -> count + " new reactions on your slam book entry!";
+            case NEW_ENTRY -> count + " new entries in your slam book!";
+            default -> content.getMessage() + " (" + count + ")";
+        };
+
+        return Notification.NotificationContent.builder()
+                .title(content.getTitle())
+                .message(message)
+                .actionUrl(content.getActionUrl())
+                .iconUrl(content.getIconUrl())
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.slambook.service;
+
+import com.slambook.dto.response.NotificationResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live notification streams, one bounded buffer per open connection, keyed by user.
+ * <p>
+ * A connection that falls behind loses events instead of buffering without limit; it is then
+ * sent a {@code resync} event (at the next heartbeat) telling the client to refetch its inbox.
+ * Streams are in-process, so each instance only pushes notifications created on that instance.
+ */
+@Slf4j
+@Component
+public class NotificationStreamRegistry {
+
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+    public static final String RESYNC_EVENT = "resync";
+
+    private final Map<String, Deque<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private final Duration heartbeatInterval;
+    private final int bufferSize;
+    private final int maxConnectionsPerUser;
+    private final Counter droppedCounter;
+
+    public NotificationStreamRegistry(
+            @Value("${app.notifications.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+            @Value("${app.notifications.stream.buffer-size:256}") int bufferSize,
+            @Value("${app.notifications.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+            MeterRegistry meterRegistry) {
+        this.heartbeatInterval = heartbeatInterval;
+        this.bufferSize = bufferSize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+
+        Gauge.builder("notifications.stream.connections", openConnections, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("notifications.stream.dropped")
+                .description("Notifications dropped because a stream's buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for the user. {@code initialEvents} are sent first (e.g. the current unread count);
+     * {@code collegeId} (nullable) subscribes the stream to that college's announcements.
+     */
+    public Flux<ServerSentEvent<Object>> connect(String userId, String collegeId, Flux<ServerSentEvent<Object>> initialEvents) {
+        return Flux.defer(() -> {
+            Connection connection = new Connection(collegeId, Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(bufferSize).get()));
+            register(userId, connection);
+
+            Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                    .onBackpressureDrop()
+                    .map(tick -> connection.resyncPending.getAndSet(false)
+                            ? ServerSentEvent.builder().event(RESYNC_EVENT).data((Object) "buffer overflow").build()
+                            : ServerSentEvent.builder().comment("heartbeat").build());
+
+            return Flux.concat(initialEvents, Flux.merge(1, connection.sink.asFlux(), heartbeats))
+                    .takeUntilOther(connection.evicted.asMono())
+                    .doFinally(signal -> unregister(userId, connection));
+        });
+    }
+
+    public void publish(String userId, NotificationResponse notification) {
+        Deque<Connection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+
+        ServerSentEvent<Object> event = toEvent(notification);
+        for (Connection connection : userConnections) {
+            emit(connection, event);
+        }
+    }
+
+    /**
+     * Send an announcement to every open stream of the college's members. Walks all connections,
+     * which is bounded by open streams rather than by college size and only happens per announcement.
+     */
+    public void publishToCollege(String collegeId, NotificationResponse announcement) {
+        ServerSentEvent<Object> event = toEvent(announcement);
+        connections.values().forEach(userConnections -> userConnections.stream()
+                .filter(connection -> collegeId.equals(connection.collegeId))
+                .forEach(connection -> emit(connection, event)));
+    }
+
+    private ServerSentEvent<Object> toEvent(NotificationResponse notification) {
+        return ServerSentEvent.<Object>builder()
+                .id(notification.getId())
+                .event(NOTIFICATION_EVENT)
+                .data(notification)
+                .build();
+    }
+
+    private void emit(Connection connection, ServerSentEvent<Object> event) {
+        Sinks.EmitResult result;
+        // Unicast sinks reject concurrent emitters; publishes for one user are rare enough to serialize
+        synchronized (connection) {
+            result = connection.sink.tryEmitNext(event);
+        }
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            droppedCounter.increment();
+            connection.resyncPending.set(true);
+        }
+    }
+
+    private void register(String userId, Connection connection) {
+        Deque<Connection> userConnections = connections.compute(userId, (id, existing) -> {
+            Deque<Connection> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(connection);
+            return deque;
+        });
+        openConnections.incrementAndGet();
+
+        // Oldest streams (usually abandoned tabs) make room for new ones
+        while (userConnections.size() > maxConnectionsPerUser) {
+            Connection oldest = userConnections.pollFirst();
+            if (oldest != null) {
+                oldest.evicted.tryEmitEmpty();
+            }
+        }
+    }
+
+    private void unregister(String userId, Connection connection) {
+        if (connection.closed.compareAndSet(false, true)) {
+            openConnections.decrementAndGet();
+        }
+        connections.computeIfPresent(userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private static class Connection {
+        private final String collegeId;
+        private final Sinks.Many<ServerSentEvent<Object>> sink;
+        private final Sinks.Empty<Void> evicted = Sinks.empty();
+        private final AtomicBoolean resyncPending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(String collegeId, Sinks.Many<ServerSentEvent<Object>> sink) {
+            this.collegeId = collegeId;
+            this.sink = sink;
+        }
+    }
+}
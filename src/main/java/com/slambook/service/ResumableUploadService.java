@@ -0,0 +1,288 @@
+package com.slambook.service;
+
+import com.slambook.dto.request.UploadSessionCreateRequest;
+import com.slambook.dto.response.SlamBookEntryResponse;
+import com.slambook.dto.response.UploadSessionResponse;
+import com.slambook.exception.BadRequestException;
+import com.slambook.exception.ConflictException;
+import com.slambook.exception.ForbiddenException;
+import com.slambook.exception.NotFoundException;
+import com.slambook.model.SlamBookEntry;
+import com.slambook.model.UploadSession;
+import com.slambook.repository.SlamBookEntryRepository;
+import com.slambook.repository.UploadSessionRepository;
+import com.slambook.security.CustomUserDetails;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resumable uploads of large video and audio attachments: create a session, PUT chunks at the current
+ * offset, ask for the offset after a failure, then complete to attach the file to the entry. Chunks are
+ * written at their offset into a staging file, so a retried chunk simply overwrites whatever part of it
+ * arrived before; only chunks that were completely written and flushed advance the offset. Sessions idle
+ * for longer than {@code ttl} are swept along with their staging files.
+ * <p>
+ * Staging files live on the instance that created the session, so requests of one session must reach
+ * the same instance.
+ */
+@Slf4j
+@Service
+public class ResumableUploadService {
+
+    private static final Set<SlamBookEntry.AttachmentType> RESUMABLE_TYPES =
+            Set.of(SlamBookEntry.AttachmentType.VIDEO, SlamBookEntry.AttachmentType.AUDIO);
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final SlamBookEntryRepository slamBookEntryRepository;
+    private final SlamBookService slamBookService;
+    private final FileStorageService fileStorageService;
+    private final FileIoExecutor fileIo;
+
+    private final Path stagingDir;
+    private final DataSize maxFileSize;
+    private final DataSize maxChunkSize;
+    private final Duration ttl;
+
+    // Sessions with a chunk or completion in progress on this instance; one at a time per session
+    private final Set<String> busySessions = ConcurrentHashMap.newKeySet();
+
+    public ResumableUploadService(
+            UploadSessionRepository uploadSessionRepository,
+            SlamBookEntryRepository slamBookEntryRepository,
+            SlamBookService slamBookService,
+            FileStorageService fileStorageService,
+            FileIoExecutor fileIo,
+            @Value("${app.file.upload-sessions.dir:./upload-sessions}") String stagingDir,
+            @Value("${app.file.upload-sessions.max-file-size:500MB}") DataSize maxFileSize,
+            @Value("${app.file.upload-sessions.max-chunk-size:16MB}") DataSize maxChunkSize,
+            @Value("${app.file.upload-sessions.ttl:PT24H}") Duration ttl) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.slamBookEntryRepository = slamBookEntryRepository;
+        this.slamBookService = slamBookService;
+        this.fileStorageService = fileStorageService;
+        this.fileIo = fileIo;
+        this.stagingDir = Paths.get(stagingDir);
+        this.maxFileSize = maxFileSize;
+        this.maxChunkSize = maxChunkSize;
+        this.ttl = ttl;
+    }
+
+    public Mono<UploadSessionResponse> createSession(String entryId, CustomUserDetails userDetails,
+                                                     UploadSessionCreateRequest request) {
+        if (!RESUMABLE_TYPES.contains(request.getType())) {
+            return Mono.error(new BadRequestException("Resumable uploads are only available for videos and audio"));
+        }
+        if (request.getSize() > maxFileSize.toBytes()) {
+            return Mono.error(new BadRequestException(
+                    String.format("File size exceeds maximum limit of %s", maxFileSize.toMegabytes() + "MB")));
+        }
+
+        return fileStorageService.checkSlamBookAttachment(request.getType().name(), request.getContentType())
+                .then(slamBookEntryRepository.findById(entryId))
+                .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
+                .flatMap(entry -> {
+                    // Only the writer can add attachments
+                    if (!entry.getWrittenBy().equals(userDetails.getUserId())) {
+                        return Mono.error(new ForbiddenException("You can only add attachments to your own entries"));
+                    }
+
+                    LocalDateTime now = LocalDateTime.now();
+                    return uploadSessionRepository.save(UploadSession.builder()
+                            .userId(userDetails.getUserId())
+                            .entryId(entryId)
+                            .type(request.getType())
+                            .filename(request.getFilename())
+                            .contentType(request.getContentType())
+                            .size(request.getSize())
+                            .received(0L)
+                            .createdAt(now)
+                            .updatedAt(now)
+                            .expiresAt(now.plus(ttl))
+                            .build());
+                })
+                .flatMap(session -> fileIo.call("create", () -> {
+                            Files.createDirectories(stagingDir);
+                            Files.createFile(stagingFile(session.getId()));
+                            return session;
+                        })
+                        .onErrorResume(e -> uploadSessionRepository.delete(session).then(Mono.error(e))))
+                .map(this::mapToResponse)
+                .doOnSuccess(session -> log.info("Upload session {} created for entry: {} ({} bytes)",
+                        session.getId(), entryId, request.getSize()));
+    }
+
+    public Mono<UploadSessionResponse> getSession(String sessionId, CustomUserDetails userDetails) {
+        return findOwnSession(sessionId, userDetails).map(this::mapToResponse);
+    }
+
+    /**
+     * Write a chunk at {@code offset}, which must be the session's current offset. On a conflict the client
+     * should fetch the session and resume from the offset it reports.
+     */
+    public Mono<UploadSessionResponse> writeChunk(String sessionId, long offset, Flux<DataBuffer> content,
+                                                  CustomUserDetails userDetails) {
+        // The offset is checked inside the guard, so a chunk can never overwrite bytes already committed
+        return whileBusy(sessionId, findOwnSession(sessionId, userDetails)
+                .flatMap(session -> {
+                    if (offset != session.getReceived()) {
+                        return Mono.error(new ConflictException("Upload is at offset " + session.getReceived()));
+                    }
+                    long limit = Math.min(maxChunkSize.toBytes(), session.getSize() - offset);
+                    return writeAt(stagingFile(sessionId), offset, limit, content)
+                            .flatMap(written -> uploadSessionRepository.advance(
+                                    sessionId, offset, offset + written, LocalDateTime.now().plus(ttl)))
+                            .switchIfEmpty(Mono.error(new ConflictException("Upload offset changed, fetch the session and resume")));
+                }))
+                .map(this::mapToResponse);
+    }
+
+    /**
+     * Attach the fully received file to the entry and close the session.
+     */
+    public Mono<SlamBookEntryResponse> complete(String sessionId, CustomUserDetails userDetails) {
+        return whileBusy(sessionId, findOwnSession(sessionId, userDetails)
+                .flatMap(session -> {
+                    if (session.getReceived() < session.getSize()) {
+                        return Mono.error(new ConflictException(String.format(
+                                "Upload is incomplete: %d of %d bytes received", session.getReceived(), session.getSize())));
+                    }
+                    return fileStorageService.uploadSlamBookAttachment(
+                                    stagingFile(sessionId),
+                                    session.getFilename(),
+                                    session.getContentType(),
+                                    session.getSize(),
+                                    userDetails.getUserId(),
+                                    session.getType().name())
+                            .onErrorMap(NoSuchFileException.class, e -> notOnThisServer())
+                            .flatMap(stored -> slamBookService.addAttachment(
+                                    session.getEntryId(), userDetails, stored, session.getType()))
+                            .flatMap(entry -> removeSession(session).thenReturn(entry));
+                }))
+                .doOnSuccess(entry -> log.info("Upload session {} completed", sessionId));
+    }
+
+    public Mono<Void> cancel(String sessionId, CustomUserDetails userDetails) {
+        return whileBusy(sessionId, findOwnSession(sessionId, userDetails)
+                .flatMap(this::removeSession))
+                .doOnSuccess(done -> log.info("Upload session {} cancelled", sessionId));
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.file.upload-sessions.sweep-interval:PT15M}",
+            initialDelayString = "${app.file.upload-sessions.sweep-initial-delay:PT1M}")
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        uploadSessionRepository.findByExpiresAtBefore(now)
+                .filter(session -> !busySessions.contains(session.getId()))
+                .concatMap(session -> uploadSessionRepository.removeIfExpired(session.getId(), now)
+                        .filter(Boolean::booleanValue)
+                        .flatMap(removed -> deleteStagingFile(session.getId()).thenReturn(session)))
+                .count()
+                .subscribe(
+                        swept -> {
+                            if (swept > 0) {
+                                log.info("Upload sessions: {} expired sessions removed", swept);
+                            }
+                        },
+                        error -> log.error("Upload session sweep failed", error));
+    }
+
+    /**
+     * Write {@code content} at {@code offset} and flush it to disk; emits the number of bytes written.
+     */
+    private Mono<Long> writeAt(Path stagingFile, long offset, long limit, Flux<DataBuffer> content) {
+        AtomicLong written = new AtomicLong();
+        Flux<DataBuffer> chunk = content.map(buffer -> {
+            if (written.addAndGet(buffer.readableByteCount()) > limit) {
+                DataBufferUtils.release(buffer);
+                throw new BadRequestException("Chunk exceeds the remaining upload size or the maximum chunk size of "
+                        + maxChunkSize.toMegabytes() + "MB");
+            }
+            return buffer;
+        });
+
+        return Mono.usingWhen(
+                        fileIo.open(stagingFile, Set.of(StandardOpenOption.WRITE)),
+                        channel -> DataBufferUtils.write(chunk, channel, offset)
+                                .map(DataBufferUtils::release)
+                                .then(fileIo.call("flush", () -> {
+                                    channel.force(false);
+                                    return written.get();
+                                })),
+                        fileIo::close)
+                .onErrorMap(NoSuchFileException.class, e -> notOnThisServer());
+    }
+
+    private NotFoundException notOnThisServer() {
+        return new NotFoundException("Upload session is not available on this server");
+    }
+
+    /**
+     * Run {@code work} as the only operation on the session; a concurrent one is turned away with 409.
+     */
+    private <T> Mono<T> whileBusy(String sessionId, Mono<T> work) {
+        return Mono.usingWhen(
+                Mono.fromCallable(() -> {
+                    if (!busySessions.add(sessionId)) {
+                        throw new ConflictException("Another request for this upload is in progress");
+                    }
+                    return sessionId;
+                }),
+                id -> work,
+                id -> Mono.fromRunnable(() -> busySessions.remove(id)));
+    }
+
+    private Mono<UploadSession> findOwnSession(String sessionId, CustomUserDetails userDetails) {
+        return uploadSessionRepository.findById(sessionId)
+                .filter(session -> session.getUserId().equals(userDetails.getUserId()))
+                .switchIfEmpty(Mono.error(new NotFoundException("Upload session not found")));
+    }
+
+    private Mono<Void> removeSession(UploadSession session) {
+        return uploadSessionRepository.delete(session)
+                .then(deleteStagingFile(session.getId()));
+    }
+
+    private Mono<Void> deleteStagingFile(String sessionId) {
+        Path stagingFile = stagingFile(sessionId);
+        return fileIo.call("delete", () -> Files.deleteIfExists(stagingFile))
+                .doOnError(e -> log.warn("Failed to delete upload staging file: {}", stagingFile, e))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Path stagingFile(String sessionId) {
+        return stagingDir.resolve(sessionId + ".part");
+    }
+
+    private UploadSessionResponse mapToResponse(UploadSession session) {
+        return UploadSessionResponse.builder()
+                .id(session.getId())
+                .entryId(session.getEntryId())
+                .type(session.getType())
+                .filename(session.getFilename())
+                .size(session.getSize())
+                .offset(session.getReceived())
+                .maxChunkSize(maxChunkSize.toBytes())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,287 @@
+package com.slambook.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps uploads in an S3-compatible bucket (AWS, MinIO, ...), so several API instances can share them.
+ * Uploads stream straight from the request: content is cut into {@code part-size} parts, and at most
+ * {@code upload-concurrency} parts per upload are in flight, so an upload holds no more than
+ * {@code (upload-concurrency + 1) * part-size} bytes in memory however large the file. Content that fits
+ * in one part goes up with a single PutObject instead.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.file.storage", havingValue = "s3")
+public class S3StorageBackend implements StorageBackend {
+
+    // S3 rejects smaller parts, except the last
+    private static final long MIN_PART_SIZE = DataSize.ofMegabytes(5).toBytes();
+
+    // Most uploads are images far smaller than a part; start small and grow
+    private static final int INITIAL_PART_BUFFER_SIZE = 64 * 1024;
+
+    private final S3AsyncClient client;
+    private final String bucket;
+    private final int partSize;
+    private final int uploadConcurrency;
+
+    private final Timer partUploadTimer;
+
+    public S3StorageBackend(
+            @Value("${app.file.s3.endpoint:}") String endpoint,
+            @Value("${app.file.s3.region:us-east-1}") String region,
+            @Value("${app.file.s3.bucket}") String bucket,
+            @Value("${app.file.s3.access-key:}") String accessKey,
+            @Value("${app.file.s3.secret-key:}") String secretKey,
+            @Value("${app.file.s3.path-style-access:false}") boolean pathStyleAccess,
+            @Value("${app.file.s3.part-size:8MB}") DataSize partSize,
+            @Value("${app.file.s3.upload-concurrency:4}") int uploadConcurrency,
+            @Value("${app.file.s3.max-connections:64}") int maxConnections,
+            MeterRegistry meterRegistry) {
+        if (partSize.toBytes() < MIN_PART_SIZE || partSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.file.s3.part-size must be between 5MB and 2GB: " + partSize);
+        }
+        this.bucket = bucket;
+        this.partSize = (int) partSize.toBytes();
+        this.uploadConcurrency = uploadConcurrency;
+
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyleAccess)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(maxConnections))
+                .credentialsProvider(accessKey.isEmpty()
+                        ? DefaultCredentialsProvider.create()
+                        : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        if (!endpoint.isEmpty()) {
+            // Legacy MD5 validation asks for x-amz-te on reads, which not every S3-compatible server implements
+            builder.endpointOverride(URI.create(endpoint))
+                    .serviceConfiguration(S3Configuration.builder().checksumValidationEnabled(false).build());
+        }
+        this.client = builder.build();
+
+        this.partUploadTimer = Timer.builder("storage.s3.part.upload")
+                .description("Time to upload one part of a multipart upload")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> write(String key, Flux<DataBuffer> content, MediaType contentType) {
+        return partition(content)
+                .switchOnFirst((first, parts) -> {
+                    if (first.hasValue() && first.get().remaining() < partSize) {
+                        // A short first part is also the last
+                        return putObject(key, first.get(), contentType);
+                    }
+                    return multipartUpload(key, parts, contentType);
+                })
+                .then();
+    }
+
+    private Mono<Void> putObject(String key, ByteBuffer content, MediaType contentType) {
+        return Mono.fromFuture(() -> client.putObject(request -> request
+                                .bucket(bucket)
+                                .key(key)
+                                .contentType(contentType.toString())
+                                .contentLength((long) content.remaining()),
+                        AsyncRequestBody.fromByteBufferUnsafe(content)))
+                .then();
+    }
+
+    private Mono<Void> multipartUpload(String key, Flux<ByteBuffer> parts, MediaType contentType) {
+        return Mono.fromFuture(() -> client.createMultipartUpload(request -> request
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType.toString())))
+                .map(CreateMultipartUploadResponse::uploadId)
+                .flatMap(uploadId -> parts.index()
+                        // Bounds the parts buffered per upload: flatMap only requests more as uploads finish
+                        .flatMap(part -> uploadPart(key, uploadId, (int) (part.getT1() + 1), part.getT2()),
+                                uploadConcurrency, 1)
+                        .collectSortedList(Comparator.comparing(CompletedPart::partNumber))
+                        .flatMap(completed -> Mono.fromFuture(() -> client.completeMultipartUpload(request -> request
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .multipartUpload(upload -> upload.parts(completed)))))
+                        .doOnSuccess(done -> log.debug("Multipart upload of {} completed", key))
+                        .onErrorResume(e -> abort(key, uploadId).then(Mono.error(e)))
+                        .doOnCancel(() -> abort(key, uploadId).subscribe()))
+                .then();
+    }
+
+    private Mono<CompletedPart> uploadPart(String key, String uploadId, int partNumber, ByteBuffer content) {
+        Timer.Sample sample = Timer.start();
+        return Mono.fromFuture(() -> client.uploadPart(request -> request
+                                .bucket(bucket)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) content.remaining()),
+                        AsyncRequestBody.fromByteBufferUnsafe(content)))
+                .doOnSuccess(response -> sample.stop(partUploadTimer))
+                .map(response -> CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .build());
+    }
+
+    private Mono<Void> abort(String key, String uploadId) {
+        return Mono.fromFuture(() -> client.abortMultipartUpload(request -> request
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)))
+                .doOnError(e -> log.warn("Failed to abort multipart upload of {}", key, e))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Cut the content into parts of exactly {@code partSize} bytes plus a shorter tail, copying each buffer
+     * once and releasing it. Always emits at least one part, so empty content still gets an object.
+     */
+    private Flux<ByteBuffer> partition(Flux<DataBuffer> content) {
+        return Flux.defer(() -> {
+            PartBuffer[] current = {new PartBuffer(INITIAL_PART_BUFFER_SIZE)};
+            boolean[] emitted = {false};
+            return content
+                    .concatMapIterable(buffer -> {
+                        List<ByteBuffer> full = new ArrayList<>(1);
+                        try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                            iterator.forEachRemaining(source -> {
+                                while (source.hasRemaining()) {
+                                    current[0].fill(source, partSize);
+                                    if (current[0].size() == partSize) {
+                                        full.add(current[0].toByteBuffer());
+                                        current[0] = new PartBuffer(partSize);
+                                        emitted[0] = true;
+                                    }
+                                }
+                            });
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                        return full;
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatWith(Mono.fromSupplier(() -> current[0])
+                            .filter(tail -> tail.size() > 0 || !emitted[0])
+                            .map(PartBuffer::toByteBuffer));
+        });
+    }
+
+    @Override
+    public Mono<StorageObject> stat(String key) {
+        return Mono.fromFuture(() -> client.headObject(request -> request.bucket(bucket).key(key)))
+                .map(response -> StorageObject.builder()
+                        .key(key)
+                        .size(response.contentLength())
+                        .lastModified(response.lastModified())
+                        .build())
+                .onErrorResume(S3StorageBackend::isNotFound, e -> Mono.empty());
+    }
+
+    @Override
+    public Flux<DataBuffer> read(String key, long position, long count, DataBufferFactory bufferFactory) {
+        return Mono.fromFuture(() -> client.getObject(request -> request
+                                .bucket(bucket)
+                                .key(key)
+                                .range("bytes=" + position + "-" + (position + count - 1)),
+                        AsyncResponseTransformer.toPublisher()))
+                .flatMapMany(Flux::from)
+                .map(bufferFactory::wrap);
+    }
+
+    /**
+     * Server-side copy then delete; S3 has no rename. Single-request copies are limited to 5GB.
+     */
+    @Override
+    public Mono<Boolean> move(String sourceKey, String targetKey) {
+        return Mono.fromFuture(() -> client.copyObject(request -> request
+                        .sourceBucket(bucket)
+                        .sourceKey(sourceKey)
+                        .destinationBucket(bucket)
+                        .destinationKey(targetKey)))
+                .then(delete(sourceKey))
+                .thenReturn(true)
+                .onErrorResume(S3StorageBackend::isNotFound, e -> Mono.just(false));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return Mono.fromFuture(() -> client.deleteObject(request -> request.bucket(bucket).key(key)))
+                .then();
+    }
+
+    private static boolean isNotFound(Throwable e) {
+        return e instanceof S3Exception s3Exception && s3Exception.statusCode() == 404;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        client.close();
+    }
+
+    /**
+     * Grows up to one part and hands its array to the SDK without another copy.
+     */
+    private static class PartBuffer {
+
+        private byte[] buf;
+        private int count;
+
+        PartBuffer(int initialSize) {
+            this.buf = new byte[initialSize];
+        }
+
+        void fill(ByteBuffer source, int partSize) {
+            int length = Math.min(source.remaining(), partSize - count);
+            if (count + length > buf.length) {
+                buf = Arrays.copyOf(buf, Math.min(partSize, Math.max(buf.length * 2, count + length)));
+            }
+            source.get(buf, count, length);
+            count += length;
+        }
+
+        int size() {
+            return count;
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
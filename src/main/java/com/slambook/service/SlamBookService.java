@@ -2,7 +2,9 @@ package com.slambook.service;
 
 import com.slambook.dto.request.ReactionRequest;
 import com.slambook.dto.request.SlamBookEntryCreateRequest;
+import com.slambook.dto.request.SlamBookEntryFilterRequest;
 import com.slambook.dto.request.SlamBookEntryUpdateRequest;
+import com.slambook.dto.response.PageResponse;
 import com.slambook.dto.response.ReactionResponse;
 import com.slambook.dto.response.SlamBookEntryResponse;
 import com.slambook.dto.response.UserBasicInfo;
@@ -10,6 +12,7 @@ import com.slambook.exception.BadRequestException;
 import com.slambook.exception.ForbiddenException;
 import com.slambook.exception.NotFoundException;
 import com.slambook.model.SlamBookEntry;
+import com.slambook.repository.KeysetCursor;
 import com.slambook.repository.SlamBookEntryRepository;
 import com.slambook.repository.UserRepository;
 import com.slambook.security.CustomUserDetails;
@@ -21,7 +24,11 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,11 +36,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SlamBookService {
 
+    // Entries resolved per user lookup, and how many of those lookups may be in flight
+    private static final int ENRICH_BATCH_SIZE = 100;
+    private static final int ENRICH_CONCURRENCY = 2;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final SlamBookEntryRepository slamBookEntryRepository;
     private final UserRepository userRepository;
     private final UserService userService;
     private final NotificationService notificationService;
     private final FileStorageService fileStorageService;
+    private final CollegeStatsService collegeStatsService;
 
     public Mono<SlamBookEntryResponse> createEntry(CustomUserDetails userDetails, SlamBookEntryCreateRequest request) {
         // Check if user already wrote for this person
@@ -67,6 +81,7 @@ public class SlamBookService {
                                         .ratings(request.getRatings())
                                         .attachments(new ArrayList<>()) // Initialize empty list
                                         .reactions(new ArrayList<>())
+                                        .reactionCounts(new EnumMap<>(SlamBookEntry.ReactionType.class))
                                         .visibility(request.getVisibility() != null ? request.getVisibility() : SlamBookEntry.Visibility.PUBLIC)
                                         .isReported(false)
                                         .createdAt(LocalDateTime.now())
@@ -76,12 +91,13 @@ public class SlamBookService {
                                 return slamBookEntryRepository.save(entry);
                             });
                 })
+                .flatMap(entry -> collegeStatsService.entryCreated(entry.getCollegeId()).thenReturn(entry))
                 .flatMap(entry -> {
                     // Send notification to the user
                     return notificationService.sendNewEntryNotification(entry)
                             .thenReturn(entry);
                 })
-                .flatMap(this::enrichEntryWithUserDetails);
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, null));
     }
 
     /**
@@ -90,12 +106,10 @@ public class SlamBookService {
     public Mono<SlamBookEntryResponse> addAttachment(
             String entryId,
             CustomUserDetails userDetails,
-            String attachmentUrl,
-            SlamBookEntry.AttachmentType type,
-            String filename,
-            Long size) {
+            StoredFile file,
+            SlamBookEntry.AttachmentType type) {
 
-        return slamBookEntryRepository.findById(entryId)
+        return slamBookEntryRepository.findByIdExcludingReactions(entryId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
                 .flatMap(entry -> {
                     // Only the writer can add attachments
@@ -103,25 +117,24 @@ public class SlamBookService {
                         return Mono.error(new ForbiddenException("You can only add attachments to your own entries"));
                     }
 
-                    if (entry.getAttachments() == null) {
-                        entry.setAttachments(new ArrayList<>());
-                    }
-
                     // Create attachment object
                     SlamBookEntry.Attachment attachment = SlamBookEntry.Attachment.builder()
                             .id(java.util.UUID.randomUUID().toString())
                             .type(type)
-                            .url(attachmentUrl)
-                            .filename(filename)
-                            .size(size)
+                            .url(file.getUrl())
+                            .thumbnail(file.getThumbnailUrl())
+                            .filename(file.getFilename())
+                            .size(file.getSize())
+                            .checksum(file.getChecksum())
                             .build();
 
-                    entry.getAttachments().add(attachment);
-                    entry.setUpdatedAt(LocalDateTime.now());
-
-                    return slamBookEntryRepository.save(entry);
+                    // $push, so concurrent attaches and reactions all land
+                    return slamBookEntryRepository.pushAttachment(entryId, userDetails.getUserId(), attachment)
+                            .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")));
                 })
-                .flatMap(this::enrichEntryWithUserDetails)
+                // The upload holds a reference to the file; give it back if the entry never took it
+                .onErrorResume(e -> fileStorageService.releaseFile(file.getUrl()).then(Mono.error(e)))
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, ownReaction(entry, userDetails.getUserId())))
                 .doOnSuccess(response -> log.info("Attachment added to entry: {}", entryId));
     }
 
@@ -129,7 +142,7 @@ public class SlamBookService {
      * Remove attachment from entry
      */
     public Mono<SlamBookEntryResponse> removeAttachment(String entryId, String attachmentId, CustomUserDetails userDetails) {
-        return slamBookEntryRepository.findById(entryId)
+        return slamBookEntryRepository.findByIdExcludingReactions(entryId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
                 .flatMap(entry -> {
                     // Only the writer can remove attachments
@@ -147,20 +160,23 @@ public class SlamBookService {
                             .findFirst()
                             .orElseThrow(() -> new NotFoundException("Attachment not found"));
 
-                    // Delete file from storage
-                    return fileStorageService.deleteFile(attachmentToRemove.getUrl())
-                            .then(Mono.defer(() -> {
-                                entry.getAttachments().removeIf(a -> a.getId().equals(attachmentId));
-                                entry.setUpdatedAt(LocalDateTime.now());
-                                return slamBookEntryRepository.save(entry);
-                            }));
+                    // The entry lets go of the file first, then its reference is released: a failed update
+                    // never leaves the entry pointing at a released file, and a concurrent removal pulls nothing
+                    return slamBookEntryRepository.pullAttachment(entryId, attachmentId)
+                            .switchIfEmpty(Mono.error(new NotFoundException("Attachment not found")))
+                            .flatMap(updated -> fileStorageService.releaseFile(attachmentToRemove.getUrl())
+                                    .onErrorResume(e -> {
+                                        log.warn("Failed to release attachment file: {}", attachmentToRemove.getUrl(), e);
+                                        return Mono.empty();
+                                    })
+                                    .thenReturn(updated));
                 })
-                .flatMap(this::enrichEntryWithUserDetails)
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, ownReaction(entry, userDetails.getUserId())))
                 .doOnSuccess(response -> log.info("Attachment removed from entry: {}", entryId));
     }
 
     public Mono<SlamBookEntryResponse> updateEntry(String entryId, CustomUserDetails userDetails, SlamBookEntryUpdateRequest request) {
-        return slamBookEntryRepository.findById(entryId)
+        return slamBookEntryRepository.findByIdExcludingReactions(entryId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
                 .flatMap(entry -> {
                     // Only the writer can update
@@ -168,15 +184,11 @@ public class SlamBookService {
                         return Mono.error(new ForbiddenException("You can only update your own entries"));
                     }
 
-                    if (request.getResponses() != null) entry.setResponses(request.getResponses());
-                    if (request.getRatings() != null) entry.setRatings(request.getRatings());
-                    if (request.getVisibility() != null) entry.setVisibility(request.getVisibility());
-
-                    entry.setUpdatedAt(LocalDateTime.now());
-
-                    return slamBookEntryRepository.save(entry);
+                    // Targeted $set: a save() of the whole entry would overwrite reactions changed meanwhile
+                    return slamBookEntryRepository.updateContent(entryId, request);
                 })
-                .flatMap(this::enrichEntryWithUserDetails);
+                .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, ownReaction(entry, userDetails.getUserId())));
     }
 
     public Mono<Void> deleteEntry(String entryId, CustomUserDetails userDetails) {
@@ -189,149 +201,257 @@ public class SlamBookService {
                         return Mono.error(new ForbiddenException("You cannot delete this entry"));
                     }
 
-                    // Delete all attachments from storage
+                    // Delete all attachments from storage, once the entry no longer points at them
                     if (entry.getAttachments() != null && !entry.getAttachments().isEmpty()) {
-                        return Flux.fromIterable(entry.getAttachments())
-                                .flatMap(attachment -> fileStorageService.deleteFile(attachment.getUrl()))
-                                .then(slamBookEntryRepository.delete(entry));
+                        return slamBookEntryRepository.delete(entry)
+                                .thenMany(Flux.fromIterable(entry.getAttachments()))
+                                .flatMap(attachment -> fileStorageService.releaseFile(attachment.getUrl()))
+                                .then(collegeStatsService.entryDeleted(entry.getCollegeId()));
                     }
 
-                    return slamBookEntryRepository.delete(entry);
+                    return slamBookEntryRepository.delete(entry)
+                            .then(collegeStatsService.entryDeleted(entry.getCollegeId()));
                 });
     }
 
-    public Flux<SlamBookEntryResponse> getEntriesForMe(CustomUserDetails userDetails) {
-        return slamBookEntryRepository.findByWrittenFor(userDetails.getUserId())
-                .flatMap(this::enrichEntryWithUserDetails);
+    public Mono<PageResponse<SlamBookEntryResponse>> getEntriesForMe(
+            CustomUserDetails userDetails, SlamBookEntryFilterRequest filter, String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toPage(slamBookEntryRepository.findPageByWrittenFor(userDetails.getUserId(), filter, after, pageSize + 1),
+                pageSize, userDetails.getUserId());
     }
 
-    public Flux<SlamBookEntryResponse> getEntriesByMe(CustomUserDetails userDetails) {
-        return slamBookEntryRepository.findByWrittenBy(userDetails.getUserId())
-                .flatMap(this::enrichEntryWithUserDetails);
+    public Mono<PageResponse<SlamBookEntryResponse>> getEntriesByMe(
+            CustomUserDetails userDetails, SlamBookEntryFilterRequest filter, String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toPage(slamBookEntryRepository.findPageByWrittenBy(userDetails.getUserId(), filter, after, pageSize + 1),
+                pageSize, userDetails.getUserId());
     }
 
     public Mono<SlamBookEntryResponse> getEntryById(String entryId, CustomUserDetails userDetails) {
         return slamBookEntryRepository.findById(entryId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
                 .flatMap(entry -> {
-                    // Check access rights
-                    boolean canAccess = entry.getWrittenFor().equals(userDetails.getUserId()) ||
-                            entry.getWrittenBy().equals(userDetails.getUserId()) ||
-                            entry.getVisibility() == SlamBookEntry.Visibility.PUBLIC ||
-                            "COLLEGE_ADMIN".equals(userDetails.getRole()) ||
-                            "SUPER_ADMIN".equals(userDetails.getRole());
-
-                    if (!canAccess) {
+                    if (!canAccess(entry, userDetails)) {
                         return Mono.error(new ForbiddenException("You don't have access to this entry"));
                     }
 
                     return Mono.just(entry);
                 })
-                .flatMap(this::enrichEntryWithUserDetails);
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, ownReaction(entry, userDetails.getUserId())));
     }
 
     public Mono<SlamBookEntryResponse> addReaction(String entryId, CustomUserDetails userDetails, ReactionRequest request) {
-        return slamBookEntryRepository.findById(entryId)
-                .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
-                .flatMap(entry -> {
-                    if (entry.getReactions() == null) {
-                        entry.setReactions(new ArrayList<>());
-                    }
-
-                    // Remove existing reaction from this user
-                    entry.getReactions().removeIf(r -> r.getUserId().equals(userDetails.getUserId()));
+        SlamBookEntry.Reaction reaction = SlamBookEntry.Reaction.builder()
+                .userId(userDetails.getUserId())
+                .type(request.getType())
+                .createdAt(LocalDateTime.now())
+                .build();
 
-                    // Add new reaction
-                    SlamBookEntry.Reaction reaction = SlamBookEntry.Reaction.builder()
-                            .userId(userDetails.getUserId())
-                            .type(request.getType())
-                            .createdAt(LocalDateTime.now())
-                            .build();
-
-                    entry.getReactions().add(reaction);
-                    entry.setUpdatedAt(LocalDateTime.now());
-
-                    return slamBookEntryRepository.save(entry);
-                })
+        return slamBookEntryRepository.upsertReaction(entryId, reaction)
+                .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
                 .flatMap(entry -> {
                     // Send notification
                     return notificationService.sendReactionNotification(entry, userDetails.getUserId())
                             .thenReturn(entry);
                 })
-                .flatMap(this::enrichEntryWithUserDetails);
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, request.getType()));
     }
 
     public Mono<SlamBookEntryResponse> removeReaction(String entryId, CustomUserDetails userDetails) {
-        return slamBookEntryRepository.findById(entryId)
+        return slamBookEntryRepository.pullReaction(entryId, userDetails.getUserId())
+                .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, null));
+    }
+
+    /**
+     * Users who reacted to an entry, newest first. Readable by anyone who can read the entry.
+     */
+    public Mono<PageResponse<ReactionResponse>> getReactors(String entryId, CustomUserDetails userDetails, String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        return slamBookEntryRepository.findByIdExcludingReactions(entryId)
                 .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
                 .flatMap(entry -> {
-                    if (entry.getReactions() != null) {
-                        entry.getReactions().removeIf(r -> r.getUserId().equals(userDetails.getUserId()));
-                        entry.setUpdatedAt(LocalDateTime.now());
-                        return slamBookEntryRepository.save(entry);
+                    if (!canAccess(entry, userDetails)) {
+                        return Mono.error(new ForbiddenException("You don't have access to this entry"));
                     }
-                    return Mono.just(entry);
+                    return slamBookEntryRepository.findReactors(entryId, after, pageSize + 1).collectList();
                 })
-                .flatMap(this::enrichEntryWithUserDetails);
+                .flatMap(fetched -> {
+                    boolean hasMore = fetched.size() > pageSize;
+                    List<SlamBookEntry.Reaction> page = hasMore ? fetched.subList(0, pageSize) : fetched;
+                    String nextCursor = null;
+                    if (hasMore) {
+                        SlamBookEntry.Reaction last = page.get(page.size() - 1);
+                        nextCursor = new KeysetCursor(last.getCreatedAt(), last.getUserId()).encode();
+                    }
+                    String pageCursor = nextCursor;
+
+                    Set<String> userIds = page.stream().map(SlamBookEntry.Reaction::getUserId).collect(Collectors.toSet());
+                    return userService.getUserBasicInfoMap(userIds)
+                            .map(users -> PageResponse.of(
+                                    page.stream().map(r -> mapToReactionResponse(r, users.get(r.getUserId()))).toList(),
+                                    pageSize,
+                                    pageCursor));
+                });
     }
 
     public Mono<SlamBookEntryResponse> reportEntry(String entryId, CustomUserDetails userDetails, String reason) {
-        return slamBookEntryRepository.findById(entryId)
+        return slamBookEntryRepository.markReported(entryId, userDetails.getUserId(), reason)
                 .switchIfEmpty(Mono.error(new NotFoundException("Entry not found")))
-                .flatMap(entry -> {
-                    entry.setIsReported(true);
-                    entry.setReportReason(reason);
-                    entry.setReportedBy(userDetails.getUserId());
-                    entry.setReportedAt(LocalDateTime.now());
-
-                    return slamBookEntryRepository.save(entry);
-                })
-                .flatMap(this::enrichEntryWithUserDetails);
+                .flatMap(entry -> enrichEntryWithUserDetails(entry, ownReaction(entry, userDetails.getUserId())));
     }
 
     public Flux<SlamBookEntryResponse> getReportedEntries(CustomUserDetails userDetails) {
-        return slamBookEntryRepository.findByCollegeIdAndIsReported(userDetails.getCollegeId(), true)
-                .flatMap(this::enrichEntryWithUserDetails);
+        return enrichEntriesWithUserDetails(
+                slamBookEntryRepository.findByCollegeIdAndIsReported(userDetails.getCollegeId(), true),
+                userDetails.getUserId());
+    }
+
+    private boolean canAccess(SlamBookEntry entry, CustomUserDetails userDetails) {
+        return entry.getWrittenFor().equals(userDetails.getUserId()) ||
+                entry.getWrittenBy().equals(userDetails.getUserId()) ||
+                entry.getVisibility() == SlamBookEntry.Visibility.PUBLIC ||
+                "COLLEGE_ADMIN".equals(userDetails.getRole()) ||
+                "SUPER_ADMIN".equals(userDetails.getRole());
+    }
+
+    private int normalizePageSize(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
     }
 
-    private Mono<SlamBookEntryResponse> enrichEntryWithUserDetails(SlamBookEntry entry) {
+    /**
+     * Turns a query fetched with {@code pageSize + 1} results into a page; the extra row only
+     * signals that another page exists and is never returned.
+     */
+    private Mono<PageResponse<SlamBookEntryResponse>> toPage(Flux<SlamBookEntry> entries, int pageSize, String viewerId) {
+        return entries.collectList()
+                .flatMap(fetched -> {
+                    boolean hasMore = fetched.size() > pageSize;
+                    List<SlamBookEntry> page = hasMore ? fetched.subList(0, pageSize) : fetched;
+                    String nextCursor = null;
+                    if (hasMore) {
+                        SlamBookEntry last = page.get(page.size() - 1);
+                        nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+                    }
+                    String cursor = nextCursor;
+                    return enrichEntriesWithUserDetails(Flux.fromIterable(page), viewerId)
+                            .collectList()
+                            .map(content -> PageResponse.of(content, pageSize, cursor));
+                });
+    }
+
+    private Mono<SlamBookEntryResponse> enrichEntryWithUserDetails(SlamBookEntry entry, SlamBookEntry.ReactionType myReaction) {
         Mono<UserBasicInfo> writtenForUserMono = userService.getUserBasicInfo(entry.getWrittenFor());
 
         Mono<UserBasicInfo> writtenByUserMono = entry.getIsAnonymous()
-                ? Mono.just(UserBasicInfo.builder().id("anonymous").firstName("Anonymous").build())
+                ? Mono.just(anonymousUser())
                 : userService.getUserBasicInfo(entry.getWrittenBy());
 
         return Mono.zip(writtenForUserMono, writtenByUserMono)
-                .map(tuple -> {
-                    UserBasicInfo writtenForUser = tuple.getT1();
-                    UserBasicInfo writtenByUser = tuple.getT2();
-
-                    List<ReactionResponse> reactionResponses = new ArrayList<>();
-                    if (entry.getReactions() != null) {
-                        reactionResponses = entry.getReactions().stream()
-                                .map(r -> ReactionResponse.builder()
-                                        .userId(r.getUserId())
-                                        .type(r.getType())
-                                        .createdAt(r.getCreatedAt())
-                                        .build())
-                                .collect(Collectors.toList());
-                    }
+                .map(tuple -> mapToEntryResponse(entry, tuple.getT1(), tuple.getT2(), myReaction));
+    }
 
-                    return SlamBookEntryResponse.builder()
-                            .id(entry.getId())
-                            .writtenFor(entry.getWrittenFor())
-                            .writtenForUser(writtenForUser)
-                            .writtenBy(entry.getWrittenBy())
-                            .writtenByUser(writtenByUser)
-                            .isAnonymous(entry.getIsAnonymous())
-                            .responses(entry.getResponses())
-                            .ratings(entry.getRatings())
-                            .attachments(entry.getAttachments())
-                            .reactions(reactionResponses)
-                            .visibility(entry.getVisibility())
-                            .createdAt(entry.getCreatedAt())
-                            .updatedAt(entry.getUpdatedAt())
-                            .build();
-                });
+    /**
+     * Enrich a list of entries, resolving the writers and owners of each batch with a
+     * single user lookup and the viewer's own reactions with a single entry lookup.
+     * Output keeps the order of the source entries.
+     */
+    private Flux<SlamBookEntryResponse> enrichEntriesWithUserDetails(Flux<SlamBookEntry> entries, String viewerId) {
+        return entries.buffer(ENRICH_BATCH_SIZE)
+                .flatMapSequential(batch -> enrichEntryBatch(batch, viewerId), ENRICH_CONCURRENCY);
+    }
+
+    private Flux<SlamBookEntryResponse> enrichEntryBatch(List<SlamBookEntry> entries, String viewerId) {
+        Set<String> userIds = new HashSet<>();
+        List<String> entryIds = new ArrayList<>(entries.size());
+        for (SlamBookEntry entry : entries) {
+            entryIds.add(entry.getId());
+            userIds.add(entry.getWrittenFor());
+            if (!entry.getIsAnonymous()) {
+                userIds.add(entry.getWrittenBy());
+            }
+        }
+
+        Mono<Map<String, SlamBookEntry.ReactionType>> ownReactions = slamBookEntryRepository
+                .findOwnReactions(entryIds, viewerId)
+                .collectMap(SlamBookEntry::getId, entry -> ownReaction(entry, viewerId));
+
+        return Mono.zip(userService.getUserBasicInfoMap(userIds), ownReactions)
+                .flatMapMany(tuple -> Flux.fromIterable(entries)
+                        .handle((entry, sink) -> {
+                            Map<String, UserBasicInfo> users = tuple.getT1();
+                            UserBasicInfo writtenForUser = users.get(entry.getWrittenFor());
+                            UserBasicInfo writtenByUser = entry.getIsAnonymous()
+                                    ? anonymousUser()
+                                    : users.get(entry.getWrittenBy());
+
+                            // Same as the single-entry path: skip entries whose users no longer exist
+                            if (writtenForUser != null && writtenByUser != null) {
+                                sink.next(mapToEntryResponse(entry, writtenForUser, writtenByUser, tuple.getT2().get(entry.getId())));
+                            }
+                        }));
+    }
+
+    /**
+     * The user's reaction among those loaded on the entry, or null if none is loaded.
+     */
+    private SlamBookEntry.ReactionType ownReaction(SlamBookEntry entry, String userId) {
+        if (entry.getReactions() == null) {
+            return null;
+        }
+        return entry.getReactions().stream()
+                .filter(r -> r.getUserId().equals(userId))
+                .map(SlamBookEntry.Reaction::getType)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private UserBasicInfo anonymousUser() {
+        return UserBasicInfo.builder().id("anonymous").firstName("Anonymous").build();
+    }
+
+    private SlamBookEntryResponse mapToEntryResponse(SlamBookEntry entry, UserBasicInfo writtenForUser, UserBasicInfo writtenByUser,
+                                                     SlamBookEntry.ReactionType myReaction) {
+        return SlamBookEntryResponse.builder()
+                .id(entry.getId())
+                .writtenFor(entry.getWrittenFor())
+                .writtenForUser(writtenForUser)
+                .writtenBy(entry.getWrittenBy())
+                .writtenByUser(writtenByUser)
+                .isAnonymous(entry.getIsAnonymous())
+                .responses(entry.getResponses())
+                .ratings(entry.getRatings())
+                .attachments(entry.getAttachments())
+                .reactionCounts(entry.getReactionCounts() != null ? entry.getReactionCounts() : Map.of())
+                .myReaction(myReaction)
+                .visibility(entry.getVisibility())
+                .createdAt(entry.getCreatedAt())
+                .updatedAt(entry.getUpdatedAt())
+                .build();
+    }
+
+    private ReactionResponse mapToReactionResponse(SlamBookEntry.Reaction reaction, UserBasicInfo user) {
+        ReactionResponse.ReactionResponseBuilder response = ReactionResponse.builder()
+                .userId(reaction.getUserId())
+                .type(reaction.getType())
+                .createdAt(reaction.getCreatedAt());
+
+        if (user != null) {
+            String lastName = user.getLastName() != null ? " " + user.getLastName() : "";
+            response.userName(user.getFirstName() + lastName)
+                    .userProfilePicture(user.getProfilePictureThumbnail() != null
+                            ? user.getProfilePictureThumbnail()
+                            : user.getProfilePicture());
+        }
+
+        return response.build();
     }
-}
\ No newline at end of file
+}
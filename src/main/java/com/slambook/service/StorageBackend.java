@@ -0,0 +1,41 @@
+package com.slambook.service;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Where uploads are kept, addressed by relative keys such as {@code profiles/<name>.jpg}. Selected with
+ * {@code app.file.storage}: {@code local} (default) or {@code s3}.
+ */
+public interface StorageBackend {
+
+    /**
+     * Store {@code content} under {@code key}, replacing any object there. The object only becomes
+     * visible once completely written, and nothing is left behind on error or cancellation.
+     * Consumes and releases the buffers.
+     */
+    Mono<Void> write(String key, Flux<DataBuffer> content, MediaType contentType);
+
+    /**
+     * Metadata of the object at {@code key}, or empty when there is none.
+     */
+    Mono<StorageObject> stat(String key);
+
+    /**
+     * Read {@code count} bytes of the object at {@code key} from {@code position}.
+     */
+    Flux<DataBuffer> read(String key, long position, long count, DataBufferFactory bufferFactory);
+
+    /**
+     * Move an object to a new key, replacing any object there. Emits false when there is no source object.
+     */
+    Mono<Boolean> move(String sourceKey, String targetKey);
+
+    /**
+     * Delete the object at {@code key}, if any.
+     */
+    Mono<Void> delete(String key);
+}
@@ -0,0 +1,19 @@
+package com.slambook.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Metadata of an object in a {@link StorageBackend}.
+ */
+@Value
+@Builder
+public class StorageObject {
+    String key;
+    long size;
+    Instant lastModified;
+    Path localPath;     // local storage only, for zero-copy serving
+}
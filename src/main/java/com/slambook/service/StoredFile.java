@@ -0,0 +1,17 @@
+package com.slambook.service;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A file written by {@link FileStorageService}, with the size and SHA-256 measured while it streamed in.
+ */
+@Value
+@Builder(toBuilder = true)
+public class StoredFile {
+    String url;
+    String filename;
+    long size;
+    String checksum;
+    String thumbnailUrl;    // images only
+}
@@ -0,0 +1,245 @@
+package com.slambook.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates downsized JPEG copies of uploaded images on a dedicated bounded pool, after the upload has
+ * already been answered. Derivatives are stored next to the original as {@code <key>-thumb<size>.jpg};
+ * until they exist the original is served in their place. When the queue is full the work is skipped.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    public static final String SIZE_PARAM = "size";
+
+    private static final String SUFFIX = "-thumb";
+
+    private final StorageBackend storageBackend;
+
+    private final List<Integer> sizes;
+    @Getter
+    private final int previewSize;
+    @Getter
+    private final int avatarSize;
+    private final long maxSourcePixels;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer generateTimer;
+    private final Counter skippedCounter;
+    private final Counter failedCounter;
+
+    public ThumbnailService(
+            @Value("${app.file.thumbnails.sizes:96,320}") List<Integer> sizes,
+            @Value("${app.file.thumbnails.preview-size:320}") int previewSize,
+            @Value("${app.file.thumbnails.avatar-size:96}") int avatarSize,
+            @Value("${app.file.thumbnails.max-source-pixels:40000000}") long maxSourcePixels,
+            @Value("${app.file.thumbnails.threads:2}") int threads,
+            @Value("${app.file.thumbnails.queue-capacity:200}") int queueCapacity,
+            StorageBackend storageBackend,
+            MeterRegistry meterRegistry) {
+        this.storageBackend = storageBackend;
+        this.sizes = sizes.stream().sorted().distinct().toList();
+        this.previewSize = previewSize;
+        this.avatarSize = avatarSize;
+        this.maxSourcePixels = maxSourcePixels;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("thumbnails-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("thumbnails.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Images waiting for thumbnail generation")
+                .register(meterRegistry);
+
+        this.generateTimer = Timer.builder("thumbnails.generate")
+                .description("Time to generate all thumbnails of one image")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("thumbnails.skipped")
+                .description("Images left without thumbnails because the queue was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("thumbnails.failed")
+                .description("Images whose thumbnails could not be generated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * URL that serves the {@code size} thumbnail of an upload (or the upload itself until it exists).
+     */
+    public String thumbnailUrl(String url, int size) {
+        return url + "?" + SIZE_PARAM + "=" + size;
+    }
+
+    /**
+     * Queue generation of the missing thumbnails of the upload at {@code key}. Never fails the caller.
+     */
+    public void generate(String key) {
+        try {
+            executor.execute(() -> generateTimer.record(() -> {
+                try {
+                    writeThumbnails(key);
+                } catch (Exception e) {
+                    failedCounter.increment();
+                    log.warn("Thumbnail generation failed for {}", key, e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            skippedCounter.increment();
+            log.warn("Thumbnail queue is full, skipping {}", key);
+        }
+    }
+
+    /**
+     * Thumbnail serving a request for {@code requestedSize}: the smallest configured size that is at
+     * least as large, or the largest one.
+     */
+    public String thumbnailKey(String key, int requestedSize) {
+        int size = sizes.stream()
+                .filter(candidate -> candidate >= requestedSize)
+                .findFirst()
+                .orElse(sizes.get(sizes.size() - 1));
+        return thumbnailKeyForSize(key, size);
+    }
+
+    public List<String> thumbnailKeys(String key) {
+        return sizes.stream().map(size -> thumbnailKeyForSize(key, size)).toList();
+    }
+
+    private String thumbnailKeyForSize(String key, int size) {
+        return key + SUFFIX + size + ".jpg";
+    }
+
+    /**
+     * Runs on this pool's own threads, so it simply waits on the storage backend.
+     */
+    private void writeThumbnails(String key) throws IOException {
+        List<Integer> missing = sizes.stream()
+                .filter(size -> storageBackend.stat(thumbnailKeyForSize(key, size)).blockOptional().isEmpty())
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        StorageObject source = storageBackend.stat(key).block();
+        if (source == null) {
+            return;
+        }
+        BufferedImage image = read(source, missing.get(missing.size() - 1));
+        if (image == null) {
+            return;
+        }
+
+        for (int size : missing) {
+            ByteArrayOutputStream thumbnail = new ByteArrayOutputStream();
+            if (!ImageIO.write(scale(image, size), "jpg", thumbnail)) {
+                throw new IOException("No JPEG writer available");
+            }
+            storageBackend.write(thumbnailKeyForSize(key, size),
+                            Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(thumbnail.toByteArray())),
+                            MediaType.IMAGE_JPEG)
+                    .block();
+        }
+        log.debug("Thumbnails written for {}: {}", key, missing);
+    }
+
+    /**
+     * Decode only as much of the image as the largest thumbnail needs: the reader subsamples rows and
+     * columns while decoding, so a large photo never exists at full resolution in memory. The encoded
+     * source is held in memory, which the upload size limit keeps small.
+     */
+    private BufferedImage read(StorageObject source, int largestSize) throws IOException {
+        DataBuffer encoded = DataBufferUtils.join(storageBackend.read(source.getKey(), 0, source.getSize(),
+                DefaultDataBufferFactory.sharedInstance)).block();
+        if (encoded == null) {
+            return null;
+        }
+        try (ImageInputStream input = new MemoryCacheImageInputStream(encoded.asInputStream(true))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.debug("No image reader for {}, serving it without thumbnails", source.getKey());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    log.warn("Image {} is {}x{}, too large to thumbnail", source.getKey(), width, height);
+                    return null;
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the target resolution so the final scale still has detail to work with
+                int subsampling = Math.max(1, Math.max(width, height) / (largestSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Fit within {@code size} x {@code size} without upscaling, flattened onto white for JPEG.
+     */
+    private BufferedImage scale(BufferedImage image, int size) {
+        double ratio = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
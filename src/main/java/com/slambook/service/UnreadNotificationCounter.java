@@ -0,0 +1,122 @@
+package com.slambook.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slambook.model.NotificationCounter;
+import com.slambook.repository.NotificationCounterRepository;
+import com.slambook.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Per-user unread notification count, stored in {@link NotificationCounter} and served from memory.
+ * <p>
+ * Writes apply the same delta to the stored counter ($inc) and to the cached value, so a badge read
+ * is a map lookup. A counter is seeded from the real count the first time it is read, and a periodic
+ * reconciliation repairs any drift (failed writes, other instances' stale caches).
+ * Counter failures are logged and never fail the request that triggered them.
+ */
+@Slf4j
+@Service
+public class UnreadNotificationCounter {
+
+    private static final int RECONCILE_CONCURRENCY = 4;
+
+    private final NotificationCounterRepository counterRepository;
+    private final NotificationRepository notificationRepository;
+    private final Cache<String, Long> cache;
+
+    public UnreadNotificationCounter(
+            NotificationCounterRepository counterRepository,
+            NotificationRepository notificationRepository,
+            @Value("${app.notifications.unread-counter.cache-max-size:50000}") long maxSize,
+            @Value("${app.notifications.unread-counter.cache-ttl:1m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.counterRepository = counterRepository;
+        this.notificationRepository = notificationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "unreadNotificationCount");
+    }
+
+    public Mono<Long> get(String userId) {
+        return Mono.defer(() -> {
+            Long cached = cache.getIfPresent(userId);
+            if (cached != null) {
+                return Mono.just(Math.max(cached, 0L));
+            }
+
+            return counterRepository.findById(userId)
+                    .filter(counter -> counter.getUnread() != null)
+                    .map(NotificationCounter::getUnread)
+                    .switchIfEmpty(Mono.defer(() -> seed(userId)))
+                    .doOnNext(count -> cache.put(userId, count))
+                    .map(count -> Math.max(count, 0L));
+        });
+    }
+
+    public Mono<Void> increment(String userId, long delta) {
+        if (userId == null || delta == 0) {
+            return Mono.empty();
+        }
+
+        return counterRepository.increment(userId, delta)
+                .doOnSuccess(ignored -> cache.asMap().computeIfPresent(userId, (id, count) -> count + delta))
+                .onErrorResume(error -> {
+                    log.warn("Failed to update unread count for user {}, reconciliation will repair it", userId, error);
+                    cache.invalidate(userId);
+                    return Mono.empty();
+                });
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.notifications.unread-counter.reconcile-interval:PT30M}",
+            initialDelayString = "${app.notifications.unread-counter.reconcile-initial-delay:PT2M}")
+    public void reconcileAll() {
+        counterRepository.findAll()
+                // Counters without an unread count are seeded on first read
+                .filter(counter -> counter.getUnread() != null)
+                .flatMap(this::reconcile, RECONCILE_CONCURRENCY)
+                .filter(Boolean::booleanValue)
+                .count()
+                .subscribe(
+                        repaired -> log.info("Unread notification counters reconciled, {} users repaired", repaired),
+                        error -> log.error("Unread notification counter reconciliation failed", error));
+    }
+
+    private Mono<Boolean> reconcile(NotificationCounter counter) {
+        return notificationRepository.countByUserIdAndIsRead(counter.getUserId(), false)
+                .filter(actual -> !Objects.equals(actual, counter.getUnread()))
+                .flatMap(actual -> {
+                    log.warn("Unread count drift for user {}: stored {}, actual {}",
+                            counter.getUserId(), counter.getUnread(), actual);
+                    return counterRepository.replace(counter.getUserId(), counter.getUnread(), actual);
+                })
+                .doOnNext(repaired -> {
+                    if (repaired) {
+                        cache.invalidate(counter.getUserId());
+                    }
+                })
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Long> seed(String userId) {
+        return notificationRepository.countByUserIdAndIsRead(userId, false)
+                .flatMap(actual -> counterRepository.replace(userId, null, actual)
+                        .flatMap(seeded -> seeded
+                                ? Mono.just(actual)
+                                // Seeded concurrently by another request: use the stored value
+                                : counterRepository.findById(userId).map(NotificationCounter::getUnread).defaultIfEmpty(actual)));
+    }
+}
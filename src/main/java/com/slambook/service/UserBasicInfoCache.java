@@ -0,0 +1,51 @@
+package com.slambook.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slambook.dto.response.UserBasicInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Bounded in-process cache of {@link UserBasicInfo}, shared across requests.
+ * Entries expire after the configured TTL and are invalidated explicitly on profile writes.
+ */
+@Component
+public class UserBasicInfoCache {
+
+    private final Cache<String, UserBasicInfo> cache;
+
+    public UserBasicInfoCache(
+            @Value("${app.cache.user-basic-info.max-size:10000}") long maxSize,
+            @Value("${app.cache.user-basic-info.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userBasicInfo");
+    }
+
+    public UserBasicInfo getIfPresent(String userId) {
+        return cache.getIfPresent(userId);
+    }
+
+    public Map<String, UserBasicInfo> getAllPresent(Collection<String> userIds) {
+        return cache.getAllPresent(userIds);
+    }
+
+    public void put(UserBasicInfo userBasicInfo) {
+        cache.put(userBasicInfo.getId(), userBasicInfo);
+    }
+
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+    }
+}
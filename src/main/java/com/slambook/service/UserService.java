@@ -18,6 +18,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -26,6 +32,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final UserBasicInfoCache userBasicInfoCache;
+    private final CollegeStatsService collegeStatsService;
 
     public Mono<UserResponse> getCurrentUser(CustomUserDetails userDetails) {
         return userRepository.findById(userDetails.getUserId())
@@ -57,13 +65,14 @@ public class UserService {
 
                     return userRepository.save(user);
                 })
+                .doOnNext(user -> userBasicInfoCache.invalidate(user.getId()))
                 .map(this::mapToUserResponse);
     }
 
     /**
      * Update profile picture URL
      */
-    public Mono<UserResponse> updateProfilePicture(CustomUserDetails userDetails, String profilePictureUrl) {
+    public Mono<UserResponse> updateProfilePicture(CustomUserDetails userDetails, StoredFile profilePicture) {
         return userRepository.findById(userDetails.getUserId())
                 .switchIfEmpty(Mono.error(new NotFoundException("User not found")))
                 .flatMap(user -> {
@@ -72,12 +81,14 @@ public class UserService {
                         profile = new User.UserProfile();
                     }
 
-                    profile.setProfilePicture(profilePictureUrl);
+                    profile.setProfilePicture(profilePicture.getUrl());
+                    profile.setProfilePictureThumbnail(profilePicture.getThumbnailUrl());
                     user.setProfile(profile);
                     user.setUpdatedAt(LocalDateTime.now());
 
                     return userRepository.save(user);
                 })
+                .doOnNext(user -> userBasicInfoCache.invalidate(user.getId()))
                 .map(this::mapToUserResponse)
                 .doOnSuccess(response -> log.info("Profile picture updated for user: {}", userDetails.getUserId()));
     }
@@ -91,11 +102,13 @@ public class UserService {
                 .flatMap(user -> {
                     if (user.getProfile() != null) {
                         user.getProfile().setProfilePicture(null);
+                        user.getProfile().setProfilePictureThumbnail(null);
                         user.setUpdatedAt(LocalDateTime.now());
                         return userRepository.save(user);
                     }
                     return Mono.just(user);
                 })
+                .doOnNext(user -> userBasicInfoCache.invalidate(user.getId()))
                 .map(this::mapToUserResponse)
                 .doOnSuccess(response -> log.info("Profile picture deleted for user: {}", userDetails.getUserId()));
     }
@@ -193,6 +206,7 @@ public class UserService {
 
                     return userRepository.save(user);
                 })
+                .flatMap(user -> collegeStatsService.joinRequestResolved(user).thenReturn(user))
                 .flatMap(user -> {
                     // Send notification
                     return notificationService.sendJoinApprovedNotification(user)
@@ -219,6 +233,7 @@ public class UserService {
 
                     return userRepository.save(user);
                 })
+                .flatMap(user -> collegeStatsService.joinRequestResolved(user).thenReturn(user))
                 .flatMap(user -> {
                     // Send notification
                     return notificationService.sendJoinRejectedNotification(user, reason)
@@ -233,8 +248,41 @@ public class UserService {
     }
 
     public Mono<UserBasicInfo> getUserBasicInfo(String userId) {
-        return userRepository.findById(userId)
-                .map(this::mapToUserBasicInfo);
+        return Mono.defer(() -> {
+            UserBasicInfo cached = userBasicInfoCache.getIfPresent(userId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            return userRepository.findById(userId)
+                    .map(this::mapToUserBasicInfo)
+                    .doOnNext(userBasicInfoCache::put);
+        });
+    }
+
+    /**
+     * Resolve basic info for many users, keyed by user id. Cache misses are loaded with a
+     * single findAllById. Unknown ids are simply absent from the returned map.
+     */
+    public Mono<Map<String, UserBasicInfo>> getUserBasicInfoMap(Collection<String> userIds) {
+        Set<String> distinctIds = new HashSet<>(userIds);
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+
+        return Mono.defer(() -> {
+            Map<String, UserBasicInfo> result = new HashMap<>(userBasicInfoCache.getAllPresent(distinctIds));
+            distinctIds.removeAll(result.keySet());
+            if (distinctIds.isEmpty()) {
+                return Mono.just(result);
+            }
+
+            return userRepository.findAllById(distinctIds)
+                    .map(this::mapToUserBasicInfo)
+                    .doOnNext(userBasicInfoCache::put)
+                    .collect(() -> result, (map, info) -> map.put(info.getId(), info));
+        });
     }
 
     private UserResponse mapToUserResponse(User user) {
@@ -254,6 +302,7 @@ public class UserService {
                     .lastName(user.getProfile().getLastName())
                     .nickname(user.getProfile().getNickname())
                     .profilePicture(user.getProfile().getProfilePicture())
+                    .profilePictureThumbnail(user.getProfile().getProfilePictureThumbnail())
                     .course(user.getProfile().getCourse())
                     .batch(user.getProfile().getBatch())
                     .rollNumber(user.getProfile().getRollNumber())
@@ -283,6 +332,7 @@ public class UserService {
                 .lastName(user.getProfile().getLastName())
                 .nickname(user.getProfile().getNickname())
                 .profilePicture(user.getProfile().getProfilePicture())
+                .profilePictureThumbnail(user.getProfile().getProfilePictureThumbnail())
                 .course(user.getProfile().getCourse())
                 .batch(user.getProfile().getBatch())
                 .build();
@@ -0,0 +1,156 @@
+package com.slambook.benchmark;
+
+import com.slambook.model.College;
+import com.slambook.model.SlamBookEntry;
+import com.slambook.model.User;
+import com.slambook.repository.CollegeRepository;
+import com.slambook.repository.SlamBookEntryRepository;
+import com.slambook.repository.UserRepository;
+import com.slambook.service.FileStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the old per-college count queries with the single aggregation used by
+ * CollegeService on a seeded dataset. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.data.mongodb.database=slambook_benchmark")
+class CollegeStatsBenchmarkTest {
+
+    private static final int COLLEGES = 200;
+    private static final int USERS_PER_COLLEGE = 50;
+    private static final int ENTRIES_PER_COLLEGE = 100;
+    private static final int ROUNDS = 5;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private CollegeRepository collegeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SlamBookEntryRepository slamBookEntryRepository;
+
+    private final List<String> collegeIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        dropCollections();
+
+        List<College> colleges = new ArrayList<>();
+        for (int c = 0; c < COLLEGES; c++) {
+            colleges.add(College.builder()
+                    .collegeCode("BENCH" + c)
+                    .name("Benchmark College " + c)
+                    .isActive(true)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        mongoTemplate.insertAll(colleges).map(College::getId).doOnNext(collegeIds::add).blockLast();
+
+        List<User> users = new ArrayList<>();
+        List<SlamBookEntry> entries = new ArrayList<>();
+        for (String collegeId : collegeIds) {
+            for (int u = 0; u < USERS_PER_COLLEGE; u++) {
+                users.add(User.builder()
+                        .collegeId(collegeId)
+                        .email("user" + u + "@" + collegeId + ".bench")
+                        .role(User.UserRole.STUDENT)
+                        .isActive(u % 10 != 0)
+                        .joinRequest(User.JoinRequest.builder()
+                                .status(u % 5 == 0 ? User.JoinRequestStatus.PENDING : User.JoinRequestStatus.APPROVED)
+                                .build())
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+            for (int e = 0; e < ENTRIES_PER_COLLEGE; e++) {
+                entries.add(SlamBookEntry.builder()
+                        .collegeId(collegeId)
+                        .writtenFor(collegeId + "-owner-" + (e % USERS_PER_COLLEGE))
+                        .writtenBy(collegeId + "-writer-" + e)
+                        .isAnonymous(false)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+        mongoTemplate.insertAll(users).blockLast();
+        mongoTemplate.insertAll(entries).blockLast();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        dropCollections();
+    }
+
+    @Test
+    void aggregationMatchesPerCollegeCounts() {
+        Map<String, College.CollegeStats> expected = perCollegeCounts().block();
+        Map<String, College.CollegeStats> actual = collegeRepository.aggregateStats(collegeIds).block();
+        assertEquals(expected, actual);
+
+        long perCollegeNanos = averageNanos(() -> perCollegeCounts().block());
+        long aggregatedNanos = averageNanos(() -> collegeRepository.aggregateStats(collegeIds).block());
+
+        System.out.printf("College stats for %d colleges: per-college counts %.1f ms (%d queries), aggregation %.1f ms (2 queries)%n",
+                COLLEGES, perCollegeNanos / 1_000_000.0, COLLEGES * 4, aggregatedNanos / 1_000_000.0);
+    }
+
+    /**
+     * The previous implementation: four count queries per college.
+     */
+    private Mono<Map<String, College.CollegeStats>> perCollegeCounts() {
+        return Flux.fromIterable(collegeIds)
+                .flatMap(collegeId -> Mono.zip(
+                        userRepository.countByCollegeId(collegeId),
+                        userRepository.countByCollegeIdAndIsActive(collegeId, true),
+                        slamBookEntryRepository.countByCollegeId(collegeId),
+                        userRepository.countByCollegeIdAndJoinRequest_Status(collegeId, User.JoinRequestStatus.PENDING)
+                ).map(tuple -> Map.entry(collegeId, College.CollegeStats.builder()
+                        .totalUsers(tuple.getT1().intValue())
+                        .activeUsers(tuple.getT2().intValue())
+                        .totalSlamBookEntries(tuple.getT3().intValue())
+                        .pendingJoinRequests(tuple.getT4().intValue())
+                        .build())))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private long averageNanos(Supplier<?> run) {
+        run.get(); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            run.get();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    private void dropCollections() {
+        collegeIds.clear();
+        mongoTemplate.dropCollection(College.class)
+                .then(mongoTemplate.dropCollection(User.class))
+                .then(mongoTemplate.dropCollection(SlamBookEntry.class))
+                .block();
+    }
+}
@@ -0,0 +1,119 @@
+package com.slambook.benchmark;
+
+import com.slambook.model.Notification;
+import com.slambook.repository.NotificationRepository;
+import com.slambook.service.FileStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares loading and sorting a whole inbox in memory with reading the first page from the
+ * {userId, isRead, createdAt} index, for growing inbox sizes. Run with ./gradlew benchmark.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.data.mongodb.database=slambook_benchmark")
+class NotificationPaginationBenchmarkTest {
+
+    private static final int[] INBOX_SIZES = {100, 1_000, 10_000, 50_000};
+    private static final int PAGE_SIZE = 20;
+    private static final int ROUNDS = 5;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @BeforeEach
+    void seed() {
+        // Remove documents rather than dropping the collection so the mapped indexes stay in place
+        clearNotifications();
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int inboxSize : INBOX_SIZES) {
+            List<Notification> notifications = new ArrayList<>(inboxSize);
+            for (int n = 0; n < inboxSize; n++) {
+                notifications.add(Notification.builder()
+                        .collegeId("bench-college")
+                        .userId(userId(inboxSize))
+                        .type(Notification.NotificationType.NEW_ENTRY)
+                        .content(Notification.NotificationContent.builder()
+                                .title("New Slam Book Entry")
+                                .message("Someone wrote in your slam book!")
+                                .build())
+                        .isRead(n % 3 == 0)
+                        .createdAt(now.minusSeconds(n))
+                        .build());
+            }
+            mongoTemplate.insertAll(notifications).blockLast();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        clearNotifications();
+    }
+
+    @Test
+    void firstPageLatencyStaysFlatAsInboxGrows() {
+        for (int inboxSize : INBOX_SIZES) {
+            String userId = userId(inboxSize);
+
+            List<Notification> sortedInMemory = loadAndSort(userId);
+            List<Notification> firstPage = notificationRepository.findPageByUserId(userId, false, null, PAGE_SIZE)
+                    .collectList().block();
+            assertEquals(sortedInMemory.subList(0, PAGE_SIZE), firstPage);
+
+            long inMemoryNanos = averageNanos(() -> loadAndSort(userId));
+            long pagedNanos = averageNanos(() -> notificationRepository.findPageByUserId(userId, false, null, PAGE_SIZE)
+                    .collectList().block());
+
+            System.out.printf("Inbox of %,d: load and sort unread %.1f ms, first page of %d %.1f ms%n",
+                    inboxSize, inMemoryNanos / 1_000_000.0, PAGE_SIZE, pagedNanos / 1_000_000.0);
+        }
+    }
+
+    /**
+     * The previous implementation: every unread notification, sorted after loading.
+     */
+    private List<Notification> loadAndSort(String userId) {
+        return notificationRepository.findByUserIdAndIsRead(userId, false)
+                .sort((n1, n2) -> n2.getCreatedAt().compareTo(n1.getCreatedAt()))
+                .collectList()
+                .block();
+    }
+
+    private String userId(int inboxSize) {
+        return "bench-user-" + inboxSize;
+    }
+
+    private long averageNanos(Supplier<?> run) {
+        run.get(); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            run.get();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    private void clearNotifications() {
+        mongoTemplate.remove(new Query(), Notification.class).block();
+    }
+}
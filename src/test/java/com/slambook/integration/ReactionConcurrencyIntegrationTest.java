@@ -0,0 +1,135 @@
+package com.slambook.integration;
+
+import com.slambook.model.SlamBookEntry;
+import com.slambook.repository.SlamBookEntryRepository;
+import com.slambook.service.FileStorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires reactions at one entry in parallel and checks that none are lost or duplicated
+ * and that the per-type counters agree with the reactions array.
+ * Run with ./gradlew integrationTest.
+ */
+@Tag("integration")
+@SpringBootTest(properties = "spring.data.mongodb.database=slambook_integration")
+class ReactionConcurrencyIntegrationTest {
+
+    private static final int REACTORS = 200;
+    private static final int CHANGES_PER_USER = 10;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private SlamBookEntryRepository slamBookEntryRepository;
+
+    private String entryId;
+
+    @BeforeEach
+    void createEntry() {
+        SlamBookEntry entry = SlamBookEntry.builder()
+                .collegeId("college")
+                .writtenFor("owner")
+                .writtenBy("writer")
+                .isAnonymous(false)
+                .reactions(new ArrayList<>())
+                .reactionCounts(new EnumMap<>(SlamBookEntry.ReactionType.class))
+                .visibility(SlamBookEntry.Visibility.PUBLIC)
+                .isReported(false)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        entryId = slamBookEntryRepository.save(entry).map(SlamBookEntry::getId).block();
+    }
+
+    @AfterEach
+    void deleteEntry() {
+        slamBookEntryRepository.deleteById(entryId).block();
+    }
+
+    @Test
+    void parallelReactionsFromDistinctUsersAreAllKept() {
+        Flux.range(0, REACTORS)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> slamBookEntryRepository.upsertReaction(entryId, reaction("user-" + i, SlamBookEntry.ReactionType.LOVE)))
+                .sequential()
+                .blockLast();
+
+        SlamBookEntry entry = slamBookEntryRepository.findById(entryId).block();
+        assertEquals(REACTORS, entry.getReactions().size());
+        assertEquals((long) REACTORS, entry.getReactionCounts().get(SlamBookEntry.ReactionType.LOVE));
+    }
+
+    @Test
+    void parallelChangesFromSameUserLeaveOneReaction() {
+        SlamBookEntry.ReactionType[] types = SlamBookEntry.ReactionType.values();
+
+        Flux.range(0, REACTORS * CHANGES_PER_USER)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> slamBookEntryRepository.upsertReaction(entryId,
+                        reaction("user-" + (i % REACTORS), types[i % types.length])))
+                .sequential()
+                .blockLast();
+
+        SlamBookEntry entry = slamBookEntryRepository.findById(entryId).block();
+        Map<String, Long> perUser = entry.getReactions().stream()
+                .collect(Collectors.groupingBy(SlamBookEntry.Reaction::getUserId, Collectors.counting()));
+        assertEquals(REACTORS, perUser.size());
+        perUser.forEach((userId, count) -> assertEquals(1L, count, "duplicate reactions for " + userId));
+        assertCountsMatchReactions(entry);
+    }
+
+    @Test
+    void parallelRemovalsLeaveOnlyUntouchedReactions() {
+        Flux.range(0, REACTORS)
+                .flatMap(i -> slamBookEntryRepository.upsertReaction(entryId, reaction("user-" + i, SlamBookEntry.ReactionType.CLAP)))
+                .blockLast();
+
+        Flux.range(0, REACTORS / 2)
+                .parallel()
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> slamBookEntryRepository.pullReaction(entryId, "user-" + (i * 2)))
+                .sequential()
+                .blockLast();
+
+        List<SlamBookEntry.Reaction> reactions = slamBookEntryRepository.findById(entryId).block().getReactions();
+        assertEquals(REACTORS / 2, reactions.size());
+        reactions.forEach(r -> assertEquals(1, Integer.parseInt(r.getUserId().substring(5)) % 2));
+        assertCountsMatchReactions(slamBookEntryRepository.findById(entryId).block());
+    }
+
+    private void assertCountsMatchReactions(SlamBookEntry entry) {
+        Map<SlamBookEntry.ReactionType, Long> expected = entry.getReactions().stream()
+                .collect(Collectors.groupingBy(SlamBookEntry.Reaction::getType, Collectors.counting()));
+        for (SlamBookEntry.ReactionType type : SlamBookEntry.ReactionType.values()) {
+            assertEquals(expected.getOrDefault(type, 0L), entry.getReactionCounts().getOrDefault(type, 0L), "count for " + type);
+        }
+    }
+
+    private SlamBookEntry.Reaction reaction(String userId, SlamBookEntry.ReactionType type) {
+        return SlamBookEntry.Reaction.builder()
+                .userId(userId)
+                .type(type)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.slambook.integration;
+
+import com.slambook.service.S3StorageBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.BucketAlreadyOwnedByYouException;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the S3 backend against an S3-compatible server such as MinIO
+ * ({@code docker run -p 9000:9000 minio/minio server /data}), configured through S3_ENDPOINT,
+ * S3_ACCESS_KEY and S3_SECRET_KEY. Run with ./gradlew integrationTest.
+ */
+@Tag("integration")
+class S3StorageBackendIntegrationTest {
+
+    private static final String ENDPOINT = env("S3_ENDPOINT", "http://localhost:9000");
+    private static final String ACCESS_KEY = env("S3_ACCESS_KEY", "minioadmin");
+    private static final String SECRET_KEY = env("S3_SECRET_KEY", "minioadmin");
+    private static final String BUCKET = "slambook-integration";
+
+    private static final int PART_SIZE = (int) DataSize.ofMegabytes(5).toBytes();
+
+    private static S3AsyncClient admin;
+    private static S3StorageBackend backend;
+
+    @BeforeAll
+    static void createBucket() {
+        admin = S3AsyncClient.builder()
+                .endpointOverride(URI.create(ENDPOINT))
+                .region(Region.US_EAST_1)
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY, SECRET_KEY)))
+                .build();
+        try {
+            admin.createBucket(request -> request.bucket(BUCKET)).join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof BucketAlreadyOwnedByYouException)) {
+                throw e;
+            }
+        }
+        backend = new S3StorageBackend(ENDPOINT, "us-east-1", BUCKET, ACCESS_KEY, SECRET_KEY, true,
+                DataSize.ofBytes(PART_SIZE), 2, 8, new SimpleMeterRegistry());
+    }
+
+    @AfterAll
+    static void closeClients() {
+        admin.close();
+    }
+
+    @Test
+    void multipartUploadRoundTrips() {
+        byte[] content = randomBytes(2 * PART_SIZE + 12345);
+        String key = "videos/" + UUID.randomUUID() + ".mp4";
+
+        backend.write(key, chunks(content, 64 * 1024), MediaType.parseMediaType("video/mp4")).block();
+
+        assertEquals(content.length, backend.stat(key).block().getSize());
+        assertArrayEquals(content, read(key, 0, content.length));
+        assertArrayEquals(Arrays.copyOfRange(content, PART_SIZE - 10, PART_SIZE + 10), read(key, PART_SIZE - 10, 20));
+
+        String moved = "videos/" + UUID.randomUUID() + ".mp4";
+        assertTrue(backend.move(key, moved).block());
+        assertFalse(backend.stat(key).blockOptional().isPresent());
+        assertFalse(backend.move(key, moved).block());
+
+        backend.delete(moved).block();
+        assertFalse(backend.stat(moved).blockOptional().isPresent());
+    }
+
+    @Test
+    void smallUploadRoundTrips() {
+        byte[] content = randomBytes(1000);
+        String key = "profiles/" + UUID.randomUUID() + ".png";
+
+        backend.write(key, chunks(content, 100), MediaType.IMAGE_PNG).block();
+
+        assertArrayEquals(content, read(key, 0, content.length));
+        backend.delete(key).block();
+    }
+
+    @Test
+    void failedUploadLeavesNothingBehind() {
+        byte[] content = randomBytes(2 * PART_SIZE);
+        String key = "videos/" + UUID.randomUUID() + ".mp4";
+        Flux<DataBuffer> failing = chunks(content, 64 * 1024)
+                .concatWith(Flux.error(new IllegalStateException("client went away")));
+
+        assertThrows(IllegalStateException.class,
+                () -> backend.write(key, failing, MediaType.parseMediaType("video/mp4")).block());
+
+        assertFalse(backend.stat(key).blockOptional().isPresent());
+        assertTrue(admin.listMultipartUploads(request -> request.bucket(BUCKET).prefix(key)).join()
+                .uploads().isEmpty());
+    }
+
+    private static byte[] read(String key, long position, int count) {
+        DataBuffer joined = DataBufferUtils.join(
+                backend.read(key, position, count, DefaultDataBufferFactory.sharedInstance)).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] content, int chunkSize) {
+        return Flux.range(0, (content.length + chunkSize - 1) / chunkSize)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(content, i * chunkSize, Math.min(content.length, (i + 1) * chunkSize))));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
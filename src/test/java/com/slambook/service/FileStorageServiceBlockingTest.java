@@ -0,0 +1,131 @@
+package com.slambook.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Drives uploads and deletes from non-blocking (event-loop style) threads with BlockHound installed,
+ * so any filesystem call that slips back onto them fails the test.
+ */
+@Tag("blockhound")
+class FileStorageServiceBlockingTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private FileIoExecutor fileIo;
+    private ThumbnailService thumbnailService;
+    private FileStorageService fileStorageService;
+
+    @BeforeAll
+    static void installBlockHound() {
+        // BlockHound only knows java.io out of the box; java.nio.file calls end in these natives
+        BlockHound.install(builder -> builder
+                .markAsBlocking("sun.nio.fs.UnixNativeDispatcher", "open0", "(JII)I")
+                .markAsBlocking("sun.nio.fs.UnixNativeDispatcher", "mkdir0", "(JI)V")
+                .markAsBlocking("sun.nio.fs.UnixNativeDispatcher", "rename0", "(JJ)V")
+                .markAsBlocking("sun.nio.fs.UnixNativeDispatcher", "unlink0", "(J)V")
+                .markAsBlocking("sun.nio.fs.UnixNativeDispatcher", "access0", "(JI)V")
+                .markAsBlocking("sun.nio.fs.UnixNativeDispatcher", "exists0", "(J)Z")
+                .markAsBlocking("sun.nio.fs.UnixNativeDispatcher", "stat0", "(JLsun/nio/fs/UnixFileAttributes;)V")
+                .markAsBlocking("sun.nio.ch.FileDispatcherImpl", "read0", "(Ljava/io/FileDescriptor;JI)I")
+                .markAsBlocking("sun.nio.ch.FileDispatcherImpl", "pwrite0", "(Ljava/io/FileDescriptor;JIJ)I"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        fileIo = new FileIoExecutor(2, 100, new SimpleMeterRegistry());
+        StorageBackend storageBackend = new LocalStorageBackend(uploadDir.toString(), fileIo);
+        thumbnailService = new ThumbnailService(List.of(96, 320), 320, 96, 40_000_000L, 1, 10,
+                storageBackend, new SimpleMeterRegistry());
+        fileStorageService = new FileStorageService(fileIo, storageBackend, null, thumbnailService);
+        ReflectionTestUtils.setField(fileStorageService, "maxFileSize", DataSize.ofKilobytes(64));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileIo.shutdown();
+        thumbnailService.shutdown();
+    }
+
+    @Test
+    void blockingCallOnNonBlockingThreadIsDetected() {
+        StepVerifier.create(Mono.fromCallable(() -> Files.createTempFile(uploadDir, "blocking-", ".tmp"))
+                        .subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify();
+    }
+
+    @Test
+    void uploadAndDeleteDoNotBlockNonBlockingThreads() {
+        Flux<DataBuffer> content = Flux.range(0, 16)
+                .map(i -> DefaultDataBufferFactory.sharedInstance.wrap("0123456789abcdef".getBytes(StandardCharsets.UTF_8)))
+                .cast(DataBuffer.class)
+                .publishOn(Schedulers.parallel());
+
+        StepVerifier.create(fileStorageService.uploadProfilePicture(filePart(content), "user")
+                        .subscribeOn(Schedulers.parallel())
+                        .publishOn(Schedulers.parallel())
+                        .flatMap(stored -> fileStorageService.deleteFile(stored.getUrl()).thenReturn(stored)))
+                .assertNext(stored -> {
+                    if (stored.getSize() != 256) {
+                        throw new AssertionError("Unexpected size " + stored.getSize());
+                    }
+                })
+                .verifyComplete();
+    }
+
+    private static FilePart filePart(Flux<DataBuffer> content) {
+        return new FilePart() {
+            @Override
+            public String filename() {
+                return "picture.png";
+            }
+
+            @Override
+            public Mono<Void> transferTo(Path dest) {
+                return Mono.error(new UnsupportedOperationException());
+            }
+
+            @Override
+            public String name() {
+                return "file";
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                HttpHeaders headers = new HttpHeaders();
+                headers.setContentType(MediaType.IMAGE_PNG);
+                return headers;
+            }
+
+            @Override
+            public Flux<DataBuffer> content() {
+                return content;
+            }
+        };
+    }
+}